@@ -0,0 +1,86 @@
+package jobshop.benchmarks;
+
+import jobshop.Instance;
+import jobshop.encodings.CriticalPath;
+import jobshop.encodings.Decoder;
+import jobshop.encodings.ResourceOrder;
+import jobshop.encodings.Schedule;
+import jobshop.encodings.Task;
+import jobshop.solvers.GreedySolver;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/** Micro-benchmarks of the conversions between encodings and of the analysis of schedules.
+ *
+ * All benchmarks work on the solution of the EST_LRPT greedy solver for the instance.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EncodingBenchmarks {
+
+    @Param({"ft10", "la40", "ta50", "ta80"})
+    public String instanceName;
+
+    Instance instance;
+    ResourceOrder order;
+    Schedule schedule;
+    Decoder decoder;
+    Schedule buffer;
+    CriticalPath path;
+
+    @Setup
+    public void setUp() throws IOException {
+        instance = Instance.fromFile(Paths.get("instances", instanceName));
+        schedule = new GreedySolver(GreedySolver.Priority.EST_LRPT).solve(instance, Long.MAX_VALUE).get();
+        order = new ResourceOrder(schedule);
+        decoder = new Decoder(instance);
+        buffer = new Schedule(instance);
+        path = new CriticalPath(instance);
+        decoder.decode(order, buffer);
+    }
+
+    /** Decoding into a new schedule, as done by <code>ResourceOrder.toSchedule()</code>. */
+    @Benchmark
+    public Optional<Schedule> toSchedule() {
+        return order.toSchedule();
+    }
+
+    /** Decoding with the reference (stream based) implementation. */
+    @Benchmark
+    public Optional<Schedule> toScheduleReference() {
+        return order.toScheduleReference();
+    }
+
+    /** Decoding into a reused schedule. */
+    @Benchmark
+    public boolean decodeInto() {
+        return decoder.decode(order, buffer);
+    }
+
+    /** Critical path of a schedule, as a list of tasks. */
+    @Benchmark
+    public List<Task> criticalPath() {
+        return schedule.criticalPath();
+    }
+
+    /** Critical path, heads and tails of the last decoding, into a reused buffer. */
+    @Benchmark
+    public CriticalPath decoderCriticalPath() {
+        decoder.criticalPath(path);
+        return path;
+    }
+
+    @Benchmark
+    public boolean isValid() {
+        return schedule.isValid();
+    }
+}
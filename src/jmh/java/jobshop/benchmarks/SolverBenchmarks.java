@@ -0,0 +1,88 @@
+package jobshop.benchmarks;
+
+import jobshop.Instance;
+import jobshop.encodings.ResourceOrder;
+import jobshop.encodings.Schedule;
+import jobshop.solvers.GreedySolver;
+import jobshop.solvers.Solver;
+import jobshop.solvers.TabooSearch;
+import jobshop.solvers.neighborhood.Nowicki;
+import jobshop.solvers.neighborhood.SwapEvaluator;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/** Micro-benchmarks of the neighborhood and of the iterations of the taboo search.
+ *
+ * All benchmarks start from the solution of the EST_LRPT greedy solver for the instance.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SolverBenchmarks {
+
+    @Param({"ft10", "la40", "ta50", "ta80"})
+    public String instanceName;
+
+    Instance instance;
+    ResourceOrder order;
+    Nowicki nowicki;
+    SwapEvaluator evaluator;
+    TabooSearch search;
+
+    @Setup
+    public void setUp() throws IOException {
+        instance = Instance.fromFile(Paths.get("instances", instanceName));
+        Schedule schedule = new GreedySolver(GreedySolver.Priority.EST_LRPT).solve(instance, Long.MAX_VALUE).get();
+        order = new ResourceOrder(schedule);
+        nowicki = new Nowicki();
+        evaluator = new SwapEvaluator(instance);
+        evaluator.reset(order);
+    }
+
+    /** Each measurement iteration runs a fresh taboo search from the initial solution. */
+    @Setup(Level.Iteration)
+    public void startSearch() {
+        search = new TabooSearch(nowicki, order, Solver.tabooMinTenure, Solver.tabooMaxTenure, new Random(0), null);
+    }
+
+    /** All swaps of a solution, including the decoding needed to find its critical path. */
+    @Benchmark
+    public List<Nowicki.Swap> allSwaps() {
+        return nowicki.allSwaps(order);
+    }
+
+    /** All swaps of a solution whose critical path is already known. */
+    @Benchmark
+    public List<Nowicki.Swap> allSwapsFromPath() {
+        return nowicki.allSwaps(order, evaluator.criticalPath());
+    }
+
+    /** Estimation of all swaps of a solution (with their feasibility check). */
+    @Benchmark
+    public int estimateAllSwaps() {
+        int best = Integer.MAX_VALUE;
+        for (Nowicki.Swap swap : nowicki.swaps(order, evaluator.criticalPath())) {
+            best = Math.min(best, evaluator.estimate(swap));
+        }
+        return best;
+    }
+
+    /** One iteration of the taboo search.
+     * When the search is blocked (no admissible move), it is restarted so that blocked iterations are not measured. */
+    @Benchmark
+    public boolean tabooIteration() {
+        if (!search.step()) {
+            startSearch();
+            return false;
+        }
+        return true;
+    }
+}
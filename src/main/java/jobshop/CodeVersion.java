@@ -0,0 +1,56 @@
+package jobshop;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/** Identifies the version of the compiled code, so that results obtained with another version are not reused.
+ *
+ * The version is a hash of the compiled classes (of the class directory, or of the jar from which the classes
+ * are loaded). Any change in the solvers thus leads to a different version.
+ */
+public final class CodeVersion {
+
+    private static String hash = null;
+
+    /** Hash of the compiled code, as 12 hexadecimal characters ("unknown" if the code cannot be read). */
+    public static synchronized String hash() {
+        if(hash == null) {
+            try {
+                Path location = Paths.get(CodeVersion.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+                hash = hashOf(location);
+            } catch (Exception e) {
+                hash = "unknown";
+            }
+        }
+        return hash;
+    }
+
+    /** Hashes a jar file, or all class files of a directory (in a deterministic order). */
+    static String hashOf(Path location) throws IOException, NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        List<Path> files;
+        if(Files.isDirectory(location)) {
+            try (Stream<Path> walk = Files.walk(location)) {
+                files = walk.filter(p -> p.toString().endsWith(".class")).sorted().collect(Collectors.toList());
+            }
+        } else {
+            files = List.of(location);
+        }
+        for(Path file : files) {
+            digest.update(location.relativize(file).toString().getBytes());
+            digest.update(Files.readAllBytes(file));
+        }
+        StringBuilder hex = new StringBuilder();
+        for(byte b : digest.digest()) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.substring(0, 12);
+    }
+}
@@ -3,9 +3,18 @@ package jobshop;
 import jobshop.encodings.Task;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Scanner;
 import java.util.stream.Collectors;
 
@@ -24,15 +33,34 @@ public final class Instance {
     /** Number of machines, assumed to be same as number of tasks. */
     public final int numMachines;
 
-    /** Matrix containing the duration of all tasks. */
-    final int[][] durations;
+    /** Number of tasks in the instance (all jobs together), which is also the number of task identifiers.
+     *
+     * The task (job, task) is identified by the integer <code>job * numTasks + task</code>.
+     */
+    public final int numTaskIds;
+
+    /** Duration of all tasks, indexed by task identifier (i.e. row-major: all tasks of job 0, then job 1, ...). */
+    final int[] durations;
+
+    /** Machine on which each task must be scheduled, indexed by task identifier. */
+    final int[] machines;
+
+    /** For each task identifier, total duration of the tasks of its job that precede it. */
+    final int[] workBefore;
+
+    /** For each task identifier, total duration of the task and of the tasks of its job that follow it. */
+    final int[] remainingWork;
+
+    /** taskOnMachine[job * numMachines + machine] is the task number of the given job that uses the machine
+     * (-1 if there is none). */
+    final int[] taskOnMachine;
 
-    /** Matrix containing the machine on which each task must be scheduled. */
-    final int[][] machines;
+    /** Lower bounds of the makespan, see the corresponding methods. */
+    int jobLowerBound, machineLowerBound, oneMachineLowerBound;
 
     /** Duration of the given task. */
     public int duration(int job, int task) {
-        return durations[job][task];
+        return durations[job * numTasks + task];
     }
 
     /** Duration of the given task. */
@@ -42,7 +70,7 @@ public final class Instance {
 
     /** Machine on which the given task must be scheduled. */
     public int machine(int job, int task) {
-        return machines[job][task];
+        return machines[job * numTasks + task];
     }
 
     /** Machine on which the given task must be scheduled. */
@@ -50,17 +78,105 @@ public final class Instance {
         return this.machine(t.job, t.task);
     }
 
+    /** Job of each task identifier. */
+    final int[] jobOfId;
+
+    /** Index inside its job of each task identifier. */
+    final int[] taskOfId;
+
+    /** Identifier of the given task. */
+    public int taskId(int job, int task) {
+        return job * numTasks + task;
+    }
+
+    /** Identifier of the given task. */
+    public int taskId(Task t) {
+        return taskId(t.job, t.task);
+    }
+
+    /** Job of the task with the given identifier. */
+    public int jobOf(int taskId) {
+        return jobOfId[taskId];
+    }
+
+    /** Index inside its job of the task with the given identifier. */
+    public int taskOf(int taskId) {
+        return taskOfId[taskId];
+    }
+
+    /** Returns the task object corresponding to the given identifier. */
+    public Task task(int taskId) {
+        return new Task(jobOfId[taskId], taskOfId[taskId]);
+    }
+
+    /** Duration of the task with the given identifier. */
+    public int duration(int taskId) {
+        return durations[taskId];
+    }
+
+    /** Machine on which the task with the given identifier must be scheduled. */
+    public int machine(int taskId) {
+        return machines[taskId];
+    }
+
+    /** Total duration of the tasks of the job that precede the task with the given identifier.
+     * This is a lower bound of its start time. */
+    public int workBefore(int taskId) {
+        return workBefore[taskId];
+    }
+
+    /** Total duration of the task with the given identifier and of the tasks of its job that follow it. */
+    public int remainingWork(int taskId) {
+        return remainingWork[taskId];
+    }
+
+    /** Total duration of the given task and of the tasks of its job that follow it. */
+    public int remainingWork(int job, int task) {
+        return remainingWork[job * numTasks + task];
+    }
+
+    /** Total duration of the tasks of the given job. */
+    public int jobDuration(int job) {
+        return remainingWork[job * numTasks];
+    }
+
+    /** Lower bound of the makespan: duration of the longest job. */
+    public int jobLowerBound() {
+        return jobLowerBound;
+    }
+
+    /** Lower bound of the makespan: total duration of the tasks of the most loaded machine. */
+    public int machineLowerBound() {
+        return machineLowerBound;
+    }
+
+    /** Lower bound of the makespan given by the one-machine relaxations.
+     *
+     * For each machine, each of its tasks cannot start before its head (work of its job before it) and must be
+     * followed by its tail (work of its job after it). The optimal makespan of this one-machine problem with
+     * preemption is computed with Jackson's preemptive schedule, and the bound is the largest over all machines.
+     * It is always at least the machine bound.
+     */
+    public int oneMachineLowerBound() {
+        return oneMachineLowerBound;
+    }
+
+    /** Best lower bound of the makespan known for this instance. A solution with this makespan is optimal. */
+    public int lowerBound() {
+        return Math.max(jobLowerBound, Math.max(machineLowerBound, oneMachineLowerBound));
+    }
+
     /** Among the tasks of the given job, returns the task number of the one that uses the given machine. */
     public int task_with_machine(int job, int wanted_machine) {
-        for(int task = 0 ; task < numTasks ; task++) {
-            if(machine(job, task) == wanted_machine)
-                return task;
-        }
-        throw new RuntimeException("No task targeting machine "+wanted_machine+" on job "+job);
+        int task = taskOnMachine[job * numMachines + wanted_machine];
+        if(task == -1)
+            throw new RuntimeException("No task targeting machine "+wanted_machine+" on job "+job);
+        return task;
     }
 
     /**
      * Creates a new instance, with uninitialized durations and machines.
+     * Once the durations and machines are filled in, <code>computeTables()</code> must be called.
      * This should no be called directly. Instead, Instance objects should be created with the
      * <code>Instance.fromFile()</code> static method.
      */
@@ -69,9 +185,141 @@ public final class Instance {
         this.numJobs = numJobs;
         this.numTasks = numTasks;
         this.numMachines = numTasks;
+        this.numTaskIds = numJobs * numTasks;
 
-        durations = new int[numJobs][numTasks];
-        machines = new int[numJobs][numTasks];
+        jobOfId = new int[numTaskIds];
+        taskOfId = new int[numTaskIds];
+        for(int id = 0 ; id < numTaskIds ; id++) {
+            jobOfId[id] = id / numTasks;
+            taskOfId[id] = id % numTasks;
+        }
+
+        durations = new int[numTaskIds];
+        machines = new int[numTaskIds];
+        workBefore = new int[numTaskIds];
+        remainingWork = new int[numTaskIds];
+        taskOnMachine = new int[numJobs * numMachines];
+    }
+
+    /** Computes the tables derived from the durations and machines. */
+    private void computeTables() {
+        for(int job = 0 ; job < numJobs ; job++) {
+            int first = job * numTasks;
+            int before = 0;
+            for(int id = first ; id < first + numTasks ; id++) {
+                workBefore[id] = before;
+                before += durations[id];
+            }
+            int after = 0;
+            for(int id = first + numTasks - 1 ; id >= first ; id--) {
+                after += durations[id];
+                remainingWork[id] = after;
+            }
+        }
+        Arrays.fill(taskOnMachine, -1);
+        for(int id = 0 ; id < numTaskIds ; id++) {
+            taskOnMachine[jobOfId[id] * numMachines + machines[id]] = taskOfId[id];
+        }
+
+        jobLowerBound = 0;
+        for(int job = 0 ; job < numJobs ; job++)
+            jobLowerBound = Math.max(jobLowerBound, jobDuration(job));
+        int[] loads = new int[numMachines];
+        for(int id = 0 ; id < numTaskIds ; id++)
+            loads[machines[id]] += durations[id];
+        machineLowerBound = Arrays.stream(loads).max().orElse(0);
+        // heads and tails of the tasks in the instance without any machine constraint
+        int[] tails = new int[numTaskIds];
+        for(int id = 0 ; id < numTaskIds ; id++)
+            tails[id] = remainingWork[id] - durations[id];
+        oneMachineLowerBound = 0;
+        int[] tasks = new int[numJobs];
+        for(int machine = 0 ; machine < numMachines ; machine++) {
+            int size = 0;
+            for(int job = 0 ; job < numJobs ; job++) {
+                int task = taskOnMachine[job * numMachines + machine];
+                if(task != -1)
+                    tasks[size++] = taskId(job, task);
+            }
+            oneMachineLowerBound = Math.max(oneMachineLowerBound,
+                    jacksonPreemptiveSchedule(tasks, size, workBefore, durations, tails));
+        }
+    }
+
+    /** Makespan of Jackson's preemptive schedule of the given tasks of a machine, with their heads and tails: at any
+     * time, the available task with the largest tail is processed. This is the optimal makespan of the
+     * one-machine problem with preemption, hence a lower bound of the makespan of any schedule in which no task
+     * starts before its head and is followed by less than its tail.
+     *
+     * @param tasks Ids of the tasks of the machine, in the first <code>size</code> cells.
+     * @param heads Heads of the tasks, indexed by task id.
+     * @param durations Durations of the tasks, indexed by task id.
+     * @param tails Tails of the tasks, indexed by task id.
+     */
+    public static int jacksonPreemptiveSchedule(int[] tasks, int size, int[] heads, int[] durations, int[] tails) {
+        // tasks of the machine by increasing head (sort keys: head in the high bits, task id in the low bits)
+        long[] sorted = new long[size];
+        for(int i = 0 ; i < size ; i++)
+            sorted[i] = ((long) heads[tasks[i]] << 32) | tasks[i];
+        Arrays.sort(sorted);
+
+        // max-heap of the available tasks, by tail (keys: tail in the high bits, task id in the low bits)
+        long[] available = new long[size];
+        int numAvailable = 0;
+        // remaining duration of the tasks, by position in the heap
+        int[] left = new int[size];
+        int time = 0, next = 0, bound = 0;
+        while(next < size || numAvailable > 0) {
+            if(numAvailable == 0)
+                time = Math.max(time, (int) (sorted[next] >>> 32));
+            while(next < size && (int) (sorted[next] >>> 32) <= time) {
+                int id = (int) sorted[next++];
+                numAvailable = heapPush(available, left, numAvailable, ((long) tails[id] << 32) | id, durations[id]);
+            }
+            // run the task with the largest tail until it ends or the next task is released
+            int run = next < size ? Math.min(left[0], (int) (sorted[next] >>> 32) - time) : left[0];
+            time += run;
+            left[0] -= run;
+            if(left[0] == 0) {
+                bound = Math.max(bound, time + (int) (available[0] >>> 32));
+                numAvailable = heapPop(available, left, numAvailable);
+            }
+        }
+        return bound;
+    }
+
+    /** Adds a key and its associated value to a binary max-heap of the given size, returns the new size. */
+    private static int heapPush(long[] keys, int[] values, int size, long key, int value) {
+        int i = size;
+        while(i > 0 && keys[(i - 1) / 2] < key) {
+            keys[i] = keys[(i - 1) / 2];
+            values[i] = values[(i - 1) / 2];
+            i = (i - 1) / 2;
+        }
+        keys[i] = key;
+        values[i] = value;
+        return size + 1;
+    }
+
+    /** Removes the largest key (and its value) from a binary max-heap of the given size, returns the new size. */
+    private static int heapPop(long[] keys, int[] values, int size) {
+        size--;
+        long key = keys[size];
+        int value = values[size];
+        int i = 0;
+        while(2 * i + 1 < size) {
+            int child = 2 * i + 1;
+            if(child + 1 < size && keys[child + 1] > keys[child])
+                child++;
+            if(keys[child] <= key)
+                break;
+            keys[i] = keys[child];
+            values[i] = values[child];
+            i = child;
+        }
+        keys[i] = key;
+        values[i] = value;
+        return size;
     }
 
     /** Parses a instance from a file. */
@@ -90,11 +338,108 @@ public final class Instance {
         for(int job = 0 ; job<numJobs ; job++) {
             Scanner line = new Scanner(lines.next());
             for(int task = 0 ; task < numTasks ; task++) {
-                pb.machines[job][task] = line.nextInt();
-                pb.durations[job][task] = line.nextInt();
+                pb.machines[pb.taskId(job, task)] = line.nextInt();
+                pb.durations[pb.taskId(job, task)] = line.nextInt();
             }
         }
+        pb.computeTables();
 
         return pb;
     }
+
+    /** First integer of a binary instance file ("JSP1" in ASCII). */
+    static final int BINARY_MAGIC = 0x4A535031;
+
+    /** Writes the instance in the binary format.
+     *
+     * The binary format is a sequence of big-endian 32 bits integers: BINARY_MAGIC, numJobs, numTasks, then the
+     * machine of each task and the duration of each task, both indexed by task identifier.
+     */
+    public void toBinaryFile(Path path) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(4 * (3 + 2 * numTaskIds));
+        buffer.putInt(BINARY_MAGIC).putInt(numJobs).putInt(numTasks);
+        for(int id = 0 ; id < numTaskIds ; id++)
+            buffer.putInt(machine(id));
+        for(int id = 0 ; id < numTaskIds ; id++)
+            buffer.putInt(duration(id));
+        buffer.flip();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while(buffer.hasRemaining())
+                channel.write(buffer);
+        }
+    }
+
+    /** Loads an instance from a file in the binary format (see <code>toBinaryFile</code>), through a memory mapping
+     * of the file. The name of the instance is the name of the file, without its ".bin" extension if any. */
+    public static Instance fromBinaryFile(Path path) throws IOException {
+        String name = path.getFileName().toString();
+        if(name.endsWith(".bin"))
+            name = name.substring(0, name.length() - ".bin".length());
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            IntBuffer ints = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).asIntBuffer();
+            if(ints.remaining() < 3 || ints.get() != BINARY_MAGIC)
+                throw new IOException("Not a binary instance: " + path);
+            int numJobs = ints.get();
+            int numTasks = ints.get();
+            if(numJobs <= 0 || numTasks <= 0 || ints.remaining() != 2 * numJobs * numTasks)
+                throw new IOException("Truncated binary instance: " + path);
+
+            Instance pb = new Instance(name, numJobs, numTasks);
+            ints.get(pb.machines);
+            ints.get(pb.durations);
+            for(int id = 0 ; id < pb.numTaskIds ; id++) {
+                if(pb.machines[id] < 0 || pb.machines[id] >= pb.numMachines)
+                    throw new IOException("Invalid machine in binary instance: " + path);
+            }
+            pb.computeTables();
+            return pb;
+        }
+    }
+
+    /** Returns true if the file is in the binary format. */
+    static boolean isBinaryFile(Path path) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            byte[] header = in.readNBytes(4);
+            return header.length == 4 && ByteBuffer.wrap(header).getInt() == BINARY_MAGIC;
+        }
+    }
+
+    /** Maximal number of instances kept by <code>load</code> (more than the instances of the repository). */
+    static final int maxLoaded = 256;
+
+    /** Instances already loaded, by absolute path of their file, the least recently used first. */
+    private static final Map<Path, Instance> loaded = Collections.synchronizedMap(new LoadedInstances());
+
+    /** Cache of <code>load</code>, that forgets the least recently used instance beyond <code>maxLoaded</code>. */
+    private static final class LoadedInstances extends LinkedHashMap<Path, Instance> {
+        private static final long serialVersionUID = 1L;
+
+        LoadedInstances() {
+            super(16, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Path, Instance> eldest) {
+            return size() > maxLoaded;
+        }
+    }
+
+    /** Loads an instance from a file in the text or the binary format.
+     *
+     * Instances are immutable, so each file is only parsed once: later calls (possibly from other threads)
+     * return the same Instance object. The last <code>maxLoaded</code> instances are kept for the whole process.
+     */
+    public static Instance load(Path path) throws IOException {
+        Path key = path.toAbsolutePath().normalize();
+        Instance instance = loaded.get(key);
+        if(instance == null) {
+            instance = isBinaryFile(path) ? fromBinaryFile(path) : fromFile(path);
+            Instance previous = loaded.putIfAbsent(key, instance);
+            if(previous != null)
+                instance = previous;
+        }
+        return instance;
+    }
 }
@@ -0,0 +1,47 @@
+package jobshop;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Converts instances from the text format to the binary format (see <code>Instance.toBinaryFile</code>).
+ *
+ * Usage: <code>InstanceConverter INPUT_DIR OUTPUT_DIR</code>. Each instance of the input directory is written in
+ * the output directory under the same name, so that the output directory can be used in place of "instances/".
+ */
+public class InstanceConverter {
+
+    public static void main(String[] args) throws IOException {
+        if(args.length != 2) {
+            System.err.println("Usage: InstanceConverter INPUT_DIR OUTPUT_DIR");
+            System.exit(1);
+        }
+        Path input = Paths.get(args[0]);
+        Path output = Paths.get(args[1]);
+        Files.createDirectories(output);
+
+        List<Path> files;
+        try (Stream<Path> list = Files.list(input)) {
+            files = list.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+        int converted = 0;
+        for(Path file : files) {
+            Instance instance;
+            try {
+                instance = Instance.fromFile(file);
+            } catch (Exception e) {
+                // not an instance (e.g. a README)
+                System.err.println("Skipping " + file);
+                continue;
+            }
+            instance.toBinaryFile(output.resolve(file.getFileName()));
+            converted++;
+        }
+        System.out.println("Converted " + converted + " instances to " + output);
+    }
+}
@@ -1,17 +1,26 @@
 package jobshop;
 
+import java.io.IOException;
 import java.io.PrintStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
 
 import jobshop.encodings.Schedule;
 import jobshop.solvers.*;
 import net.sourceforge.argparse4j.ArgumentParsers;
+import net.sourceforge.argparse4j.impl.Arguments;
 import net.sourceforge.argparse4j.inf.ArgumentParser;
 import net.sourceforge.argparse4j.inf.ArgumentParserException;
 import net.sourceforge.argparse4j.inf.Namespace;
@@ -21,6 +30,69 @@ import net.sourceforge.argparse4j.inf.Namespace;
  */
 public class Main {
 
+    /** Runs the solver on the instance, with a deadline that starts when the solver starts.
+     *
+     * The run stops before the deadline as soon as the solver finds a solution whose makespan is the lower bound of
+     * the instance, since such a solution is optimal.
+     *
+     * @param target If positive, the run also stops as soon as a solution with this makespan is found (e.g. the best
+     *               known result of the instance).
+     * @param threads Number of threads given to the solver, recorded in the result.
+     * @param codeVersion Version of the code recorded in the result.
+     * @param results If not null, the file to which the result is appended as soon as it is known.
+     * @param traceFile If not null, the file to which a trace of the run is written, with one sample every
+     *                  <code>traceInterval</code> milliseconds.
+     * @return The result of the run, or null if the solver did not provide a valid schedule.
+     */
+    static Result solve(String instanceName, Instance instance, String solverName, long seed, Solver solver,
+                        long solveTimeMs, int target, int threads, String codeVersion, ResultsFile results,
+                        Path traceFile, long traceInterval) throws IOException {
+        Trace trace = null;
+        if(traceFile != null) {
+            trace = new Trace(traceInterval);
+            solver.statistics().setTrace(trace);
+        }
+
+        // start chronometer and compute deadline for the solver to provide a result.
+        long start = System.currentTimeMillis();
+        long deadline = System.currentTimeMillis() + solveTimeMs;
+        // run the solver on the current instance, keeping the best solution it has published
+        CancellationToken token = new CancellationToken(deadline, Math.max(instance.lowerBound(), target));
+        AtomicReference<Schedule> incumbent = new AtomicReference<>();
+        Optional<Schedule> schedule = solver.solve(instance, token, incumbent::set);
+        // measure elapsed time (in milliseconds)
+        long runtime = System.currentTimeMillis() - start;
+        if(schedule.isEmpty()) {
+            schedule = Optional.ofNullable(incumbent.get());
+        }
+
+        // check that the solver returned a valid solution (schedules built by a Decoder are valid by construction)
+        if(schedule.isEmpty()) {
+            return null;
+        }
+        if(!schedule.get().isDecoded()) {
+            Optional<Schedule.Violation> violation = schedule.get().firstViolation();
+            if(violation.isPresent()) {
+                System.err.println("ERROR: " + solverName + " on " + instanceName + ": " + violation.get());
+                return null;
+            }
+        }
+        SolverStatistics statistics = solver.statistics();
+        // the solver may prove a better bound than the one of the instance (e.g. the branch and bound)
+        int lowerBound = Math.max(instance.lowerBound(), statistics.lowerBound());
+        Result result = new Result(instanceName, solverName, seed, solveTimeMs, target, threads, runtime,
+                schedule.get().makespan(),
+                BestKnownResults.of(instanceName), lowerBound, statistics.iterations(), statistics.evaluations(),
+                statistics.infeasible(), statistics.taboo(), statistics.lastImprovement(), codeVersion);
+        if(results != null) {
+            results.write(result);
+        }
+        if(trace != null) {
+            trace.writeCsv(traceFile);
+        }
+        return result;
+    }
+
     public static void main(String[] args) {
         // configure the argument parser
         ArgumentParser parser = ArgumentParsers.newFor("jsp-solver").build()
@@ -39,6 +111,48 @@ public class Main {
                 .required(true)
                 .help("Instance(s) to solve (space separated if more than one). All instances starting with the given " +
                         "string will be selected. (e.g. \"ft\" will select the instances ft06, ft10 and ft20.");
+        parser.addArgument("--seed")
+                .nargs("+")
+                .type(Long.class)
+                .setDefault(List.of(0L))
+                .help("Seed(s) of the random choices of the solvers. Each (instance, solver) pair is run once per " +
+                        "seed, and runs with the same seed are repeatable (except for the parallel solvers, whose " +
+                        "result may depend on the scheduling of their threads).");
+        parser.addArgument("--instance-dir")
+                .setDefault("instances/")
+                .help("Directory containing the instance files, in text or binary format (see InstanceConverter).");
+        parser.addArgument("--results")
+                .help("File to which the result of each (instance, solver) pair is appended as soon as it is " +
+                        "known. The file is in CSV if its name ends with \".csv\", and in JSON lines otherwise.");
+        parser.addArgument("--resume")
+                .action(Arguments.storeTrue())
+                .help("Reuses the results of the file given with --results that were obtained with the same " +
+                        "instance, solver, seed, timeout, stop target, threads per run and version of the code, " +
+                        "instead of running the solver again.");
+        parser.addArgument("--code-version")
+                .help("Label of the version of the code recorded with the results and compared by --resume. " +
+                        "Default is a hash of all compiled classes, which changes with any change of the code (e.g. " +
+                        "a new solver): give the same label to reuse the results of unchanged solvers. The label " +
+                        "cannot contain ',', '\"', '\\' or line breaks, which are not escaped in the results file.");
+        parser.addArgument("--trace")
+                .help("Directory in which a trace of each run (elapsed time, iteration, current and best makespan) " +
+                        "is written, in a CSV file named after the instance and the solver.");
+        parser.addArgument("--trace-interval")
+                .setDefault(100L)
+                .type(Long.class)
+                .help("Minimal time between two samples of the traces, in milliseconds.");
+        parser.addArgument("--stop-at-best")
+                .action(Arguments.storeTrue())
+                .help("Stops each run as soon as it reaches the best known result of its instance. Runs always stop " +
+                        "when they reach the lower bound of the instance, since their solution is then optimal.");
+        parser.addArgument("--stats")
+                .action(Arguments.storeTrue())
+                .help("Prints, for each solver, the throughput and the convergence statistics of its runs.");
+        parser.addArgument("--parallel")
+                .setDefault(1)
+                .type(Integer.class)
+                .help("Number of (instance, solver) pairs that are solved simultaneously. It is limited to the number " +
+                        "of available cores, that are shared evenly between the pairs.");
 
         // parse command line arguments
         Namespace ns = null;
@@ -60,10 +174,26 @@ public class Main {
         // convert the timeout from seconds to milliseconds.
         long solveTimeMs = ns.getLong("timeout") * 1000;
 
+        // number of pairs solved simultaneously, each of them using its own share of the cores so that
+        // the runtimes remain comparable with a sequential run.
+        int cores = Runtime.getRuntime().availableProcessors();
+        int workers = ns.getInt("parallel");
+        if(workers < 1) {
+            System.err.println("ERROR: the number of parallel runs must be positive.");
+            System.exit(1);
+        }
+        if(workers > cores) {
+            System.err.println("WARNING: only " + cores + " cores available, running " + cores + " pairs in parallel.");
+            workers = cores;
+        }
+        int threadsPerRun = cores / workers;
+
         // Get the list of solvers that we should benchmark.
         // We also check that we have a solver available for the given name and print an error message otherwise.
         List<String> solversToTest = ns.getList("solver");
-        List<Solver> solvers = solversToTest.stream().map(Solver::getSolver).collect(Collectors.toList());
+        for(String solverName : solversToTest) {
+            Solver.getSolver(solverName, threadsPerRun);
+        }
 
         // retrieve all instances on which we should run the solvers.
         List<String> instances = new ArrayList<>();
@@ -78,12 +208,85 @@ public class Main {
             instances.addAll(matches);
         }
 
+        List<Long> seeds = ns.getList("seed");
+
         // average runtime of each solver
         float[] avg_runtimes = new float[solversToTest.size()];
         // average distance to best known result for each solver
         float[] avg_distances = new float[solversToTest.size()];
+        // average distance to the lower bound for each solver
+        float[] avg_opt_gaps = new float[solversToTest.size()];
 
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        ResultsFile results = null;
         try {
+            if(ns.getString("results") != null) {
+                results = new ResultsFile(Paths.get(ns.getString("results")));
+            }
+            ResultsFile resultsFile = results;
+            Path traceDir = ns.getString("trace") == null ? null : Paths.get(ns.getString("trace"));
+            if(traceDir != null) {
+                Files.createDirectories(traceDir);
+            }
+            long traceInterval = ns.getLong("trace_interval");
+            boolean stopAtBest = ns.getBoolean("stop_at_best");
+            String codeVersion = ns.getString("code_version") != null ? ns.getString("code_version")
+                    : CodeVersion.hash();
+            if(codeVersion.matches("(?s).*[,\"\\\\\r\n].*")) {
+                System.err.println("ERROR: the code version \"" + codeVersion + "\" contains ',', '\"', '\\' or a " +
+                        "line break.");
+                System.exit(1);
+            }
+
+            // results of previous runs, by key
+            Map<String, Result> known = new HashMap<>();
+            if(ns.getBoolean("resume")) {
+                if(results == null) {
+                    System.err.println("ERROR: --resume requires a results file (--results).");
+                    System.exit(1);
+                }
+                for(Result result : ResultsFile.read(results.path)) {
+                    known.put(result.key(), result);
+                }
+            }
+
+            // load all instances and submit all (instance, solver, seed) runs, the results are printed in order as
+            // soon as they are available, with one line per instance and seed
+            List<String> rowNames = new ArrayList<>();
+            List<Instance> loaded = new ArrayList<>();
+            List<List<Future<Result>>> futures = new ArrayList<>();
+            for(String instanceName : instances) {
+                // load instance from file.
+                Path path = Paths.get(ns.getString("instance_dir"), instanceName);
+                Instance instance = Instance.load(path);
+                int target = stopAtBest && BestKnownResults.isKnown(instanceName) ? BestKnownResults.of(instanceName) : 0;
+
+                for(long seed : seeds) {
+                    rowNames.add(seeds.size() == 1 ? instanceName : instanceName + "/" + seed);
+                    loaded.add(instance);
+                    List<Future<Result>> rowResults = new ArrayList<>();
+                    for(String solverName : solversToTest) {
+                        Result previous = known.get(
+                                Result.key(instanceName, solverName, seed, solveTimeMs, target, threadsPerRun,
+                                        codeVersion));
+                        if(previous != null) {
+                            // already computed with the same code, no need to run it again
+                            rowResults.add(CompletableFuture.completedFuture(previous));
+                            continue;
+                        }
+                        // each run has its own solver object, so that no state is shared between parallel runs
+                        Solver solver = Solver.getSolver(solverName, threadsPerRun).withSeed(seed);
+                        Path traceFile = traceDir == null ? null
+                                : traceDir.resolve(instanceName + "-" + solverName + "-" + seed + ".csv");
+                        rowResults.add(pool.submit(() -> solve(instanceName, instance, solverName, seed, solver,
+                                solveTimeMs, target, threadsPerRun, codeVersion, resultsFile, traceFile,
+                                traceInterval)));
+                    }
+                    futures.add(rowResults);
+                }
+            }
+            int rows = futures.size();
+
             // header of the result table :
             //   - solver names (first line)
             //   - name of each column (second line)
@@ -93,51 +296,39 @@ public class Main {
             output.println();
             output.print("instance size  best      ");
             for(String s : solversToTest) {
-                output.print("runtime makespan ecart        ");
+                output.print("runtime makespan ecart   opt  ");
             }
             output.println();
 
-            // for all instances, load it from f
-            for(String instanceName : instances) {
+            for(int row = 0 ; row < rows ; row++) {
+                Instance instance = loaded.get(row);
                 // get the best known result for this instance
-                int bestKnown = BestKnownResults.of(instanceName);
-
-                // load instance from file.
-                Path path = Paths.get("instances/", instanceName);
-                Instance instance = Instance.fromFile(path);
+                int bestKnown = BestKnownResults.of(instance.name);
 
                 // print some general statistics on the instance
-                output.printf("%-8s %-5s %4d      ",instanceName, instance.numJobs +"x"+instance.numTasks, bestKnown);
-
-                // run all selected solvers on the instance and print the results
-                for(int solverId = 0 ; solverId < solvers.size() ; solverId++) {
-                    // Select the next solver to run. Given the solver name passed on the command line,
-                    // we lookup the `Main.solvers` hash map to get the solver object with the given name.
-                    Solver solver = solvers.get(solverId);
-
-                    // start chronometer and compute deadline for the solver to provide a result.
-                    long start = System.currentTimeMillis();
-                    long deadline = System.currentTimeMillis() + solveTimeMs;
-                    // run the solver on the current instance
-                    Optional<Schedule> result = solver.solve(instance, deadline);
-                    // measure elapsed time (in milliseconds)
-                    long runtime = System.currentTimeMillis() - start;
+                output.printf("%-8s %-5s %4d      ",rowNames.get(row), instance.numJobs +"x"+instance.numTasks, bestKnown);
+
+                // print the results of all selected solvers on the instance
+                for(int solverId = 0 ; solverId < solversToTest.size() ; solverId++) {
+                    // wait for the solver to finish
+                    Result result = futures.get(row).get(solverId).get();
 
                     // check that the solver returned a valid solution
-                    if(result.isEmpty() || !result.get().isValid()) {
+                    if(result == null) {
                         System.err.println("ERROR: solver did not provide a valid schedule");
                         System.exit(1); // bug in implementation, bail out
                     }
-                    // we have a valid schedule
-                    Schedule schedule = result.get();
 
                     // compute some statistics on the solution and print them.
-                    int makespan = schedule.makespan();
-                    float dist = 100f * (makespan - bestKnown) / (float) bestKnown;
-                    avg_runtimes[solverId] += (float) runtime / (float) instances.size();
-                    avg_distances[solverId] += dist / (float) instances.size();
+                    long runtime = result.runtime;
+                    int makespan = result.makespan;
+                    float dist = result.gap();
+                    avg_runtimes[solverId] += (float) runtime / (float) rows;
+                    avg_distances[solverId] += dist / (float) rows;
+                    float optGap = result.optimalityGap();
+                    avg_opt_gaps[solverId] += optGap / (float) rows;
 
-                    output.printf("%7d %8s %5.1f        ", runtime, makespan, dist);
+                    output.printf("%7d %8s %5.1f %5.1f  ", runtime, makespan, dist, optGap);
                     output.flush();
                 }
                 output.println();
@@ -147,10 +338,39 @@ public class Main {
             // we have finished all benchmarks, compute the average solve time and distance of each solver.
             output.printf("%-8s %-5s %4s      ", "AVG", "-", "-");
             for(int solverId = 0 ; solverId < solversToTest.size() ; solverId++) {
-                output.printf("%7.1f %8s %5.1f        ", avg_runtimes[solverId], "-", avg_distances[solverId]);
+                output.printf("%7.1f %8s %5.1f %5.1f  ", avg_runtimes[solverId], "-", avg_distances[solverId],
+                        avg_opt_gaps[solverId]);
             }
+            output.println();
 
-
+            if(ns.getBoolean("stats")) {
+                // throughput and convergence of each solver, over all instances
+                output.println();
+                output.printf("%-30s %12s %12s %11s %8s %10s%n",
+                        "solver", "iter/s", "evals/s", "infeasible%", "taboo%", "last impr%");
+                for(int solverId = 0 ; solverId < solversToTest.size() ; solverId++) {
+                    long runtime = 0, iterations = 0, evaluations = 0, infeasible = 0, taboo = 0;
+                    // time of the last improvement, relative to the runtime
+                    float lastImprovement = 0;
+                    for(List<Future<Result>> rowResults : futures) {
+                        Result result = rowResults.get(solverId).get();
+                        runtime += result.runtime;
+                        iterations += result.iterations;
+                        evaluations += result.evaluations;
+                        infeasible += result.infeasible;
+                        taboo += result.taboo;
+                        lastImprovement += 100f * result.lastImprovement / Math.max(1, result.runtime) / rows;
+                    }
+                    output.printf("%-30s %12.0f %12.0f %11.1f %8.1f %10.1f%n", solversToTest.get(solverId),
+                            iterations * 1000.0 / Math.max(1, runtime), evaluations * 1000.0 / Math.max(1, runtime),
+                            100.0 * infeasible / Math.max(1, evaluations), 100.0 * taboo / Math.max(1, evaluations),
+                            lastImprovement);
+                }
+            }
+            pool.shutdown();
+            if(results != null) {
+                results.close();
+            }
 
         } catch (Exception e) {
             // there was uncaught exception, print the stack trace and exit with error.
@@ -0,0 +1,194 @@
+package jobshop;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/** Outcome of a run of a solver on an instance, i.e. one record of a benchmark. */
+public final class Result {
+
+    /** Name of the instance. */
+    public final String instance;
+
+    /** Name of the solver. */
+    public final String solver;
+
+    /** Seed of the random choices of the solver. */
+    public final long seed;
+
+    /** Time given to the solver, in milliseconds. */
+    public final long timeout;
+
+    /** Makespan at which the run was stopped before its timeout (e.g. the best known result with --stop-at-best),
+     * 0 if the run was only stopped at the lower bound of the instance. */
+    public final int target;
+
+    /** Number of threads given to the solver. */
+    public final int threads;
+
+    /** Time actually spent by the solver, in milliseconds. */
+    public final long runtime;
+
+    /** Makespan of the solution found by the solver. */
+    public final int makespan;
+
+    /** Best known makespan for the instance. */
+    public final int bestKnown;
+
+    /** Lower bound of the makespan: the bound of the instance, or the better bound proven by the solver. */
+    public final int lowerBound;
+
+    /** Number of iterations performed by the solver (0 if the solver does not count them). */
+    public final long iterations;
+
+    /** Number of candidate solutions evaluated by the solver (0 if the solver does not count them). */
+    public final long evaluations;
+
+    /** Number of evaluated candidates that were not valid solutions. */
+    public final long infeasible;
+
+    /** Number of evaluated candidates that were rejected because they were taboo. */
+    public final long taboo;
+
+    /** Time elapsed (in milliseconds) before the last improvement of the solution. */
+    public final long lastImprovement;
+
+    /** Version of the code that produced the result (see CodeVersion). */
+    public final String version;
+
+    public Result(String instance, String solver, long seed, long timeout, int target, int threads, long runtime,
+                  int makespan, int bestKnown, int lowerBound, long iterations, long evaluations, long infeasible,
+                  long taboo, long lastImprovement, String version) {
+        this.instance = instance;
+        this.solver = solver;
+        this.seed = seed;
+        this.timeout = timeout;
+        this.target = target;
+        this.threads = threads;
+        this.runtime = runtime;
+        this.makespan = makespan;
+        this.bestKnown = bestKnown;
+        this.lowerBound = lowerBound;
+        this.iterations = iterations;
+        this.evaluations = evaluations;
+        this.infeasible = infeasible;
+        this.taboo = taboo;
+        this.lastImprovement = lastImprovement;
+        this.version = version;
+    }
+
+    /** Identifies the run that produced the result: two runs with the same key are expected to give comparable
+     * results, so that a run does not need to be repeated if a result with the same key is known. */
+    public String key() {
+        return key(instance, solver, seed, timeout, target, threads, version);
+    }
+
+    /** Key of the result of a run (see <code>key()</code>). */
+    public static String key(String instance, String solver, long seed, long timeout, int target, int threads,
+                             String version) {
+        return instance + "/" + solver + "/" + seed + "/" + timeout + "/" + target + "/" + threads + "/" + version;
+    }
+
+    /** Distance to the best known makespan, in percent. */
+    public float gap() {
+        return 100f * (makespan - bestKnown) / (float) bestKnown;
+    }
+
+    /** Distance to the lower bound, in percent. A gap of 0 means that the solution is proven optimal. */
+    public float optimalityGap() {
+        return 100f * (makespan - lowerBound) / (float) lowerBound;
+    }
+
+    /** Number of evaluations per second of runtime. */
+    public double evaluationsPerSecond() {
+        return evaluations * 1000.0 / Math.max(1, runtime);
+    }
+
+    /** Header line of the CSV format. */
+    public static String csvHeader() {
+        return "instance,solver,seed,timeout,target,threads,runtime,makespan,best,gap,lower_bound,opt_gap," +
+                "iterations,evaluations,evals_per_sec,infeasible,taboo,last_improvement,version";
+    }
+
+    /** This result as a line of the CSV format (see <code>csvHeader</code>). */
+    public String toCsv() {
+        return String.format(Locale.ROOT, "%s,%s,%d,%d,%d,%d,%d,%d,%d,%.2f,%d,%.2f,%d,%d,%.1f,%d,%d,%d,%s",
+                instance, solver, seed, timeout, target, threads, runtime, makespan, bestKnown, gap(), lowerBound,
+                optimalityGap(), iterations, evaluations, evaluationsPerSecond(), infeasible, taboo, lastImprovement,
+                version);
+    }
+
+    /** This result as a single line JSON object. */
+    public String toJson() {
+        return String.format(Locale.ROOT, "{\"instance\":\"%s\",\"solver\":\"%s\",\"seed\":%d,\"timeout\":%d," +
+                        "\"target\":%d,\"threads\":%d,\"runtime\":%d," +
+                        "\"makespan\":%d,\"best\":%d,\"gap\":%.2f,\"lower_bound\":%d,\"opt_gap\":%.2f," +
+                        "\"iterations\":%d,\"evaluations\":%d," +
+                        "\"evals_per_sec\":%.1f,\"infeasible\":%d,\"taboo\":%d,\"last_improvement\":%d," +
+                        "\"version\":\"%s\"}",
+                instance, solver, seed, timeout, target, threads, runtime, makespan, bestKnown, gap(), lowerBound,
+                optimalityGap(), iterations, evaluations, evaluationsPerSecond(), infeasible, taboo, lastImprovement,
+                version);
+    }
+
+    /** Reads a result from a line of the CSV format.
+     *
+     * @throws IllegalArgumentException If the line is not a valid result (e.g. the header or a truncated line).
+     */
+    public static Result fromCsv(String line) {
+        String[] fields = line.split(",");
+        if(fields.length != 19) {
+            throw new IllegalArgumentException("Not a result: " + line);
+        }
+        try {
+            return new Result(fields[0], fields[1], Long.parseLong(fields[2]), Long.parseLong(fields[3]),
+                    Integer.parseInt(fields[4]), Integer.parseInt(fields[5]), Long.parseLong(fields[6]),
+                    Integer.parseInt(fields[7]), Integer.parseInt(fields[8]), Integer.parseInt(fields[10]),
+                    Long.parseLong(fields[12]), Long.parseLong(fields[13]), Long.parseLong(fields[15]),
+                    Long.parseLong(fields[16]), Long.parseLong(fields[17]), fields[18]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a result: " + line, e);
+        }
+    }
+
+    /** A field of a JSON object: either a string or a number. */
+    private static final Pattern JSON_FIELD = Pattern.compile("\"(\\w+)\":(?:\"([^\"]*)\"|([^,}]+))");
+
+    /** Reads a result from a JSON line, as written by <code>toJson</code>.
+     *
+     * @throws IllegalArgumentException If the line is not a valid result (e.g. a truncated line).
+     */
+    public static Result fromJson(String line) {
+        if(!line.startsWith("{") || !line.endsWith("}")) {
+            throw new IllegalArgumentException("Not a result: " + line);
+        }
+        Map<String, String> fields = new HashMap<>();
+        Matcher m = JSON_FIELD.matcher(line);
+        while(m.find()) {
+            fields.put(m.group(1), m.group(2) != null ? m.group(2) : m.group(3));
+        }
+        try {
+            return new Result(required(fields, "instance"), required(fields, "solver"),
+                    Long.parseLong(required(fields, "seed")), Long.parseLong(required(fields, "timeout")),
+                    Integer.parseInt(required(fields, "target")), Integer.parseInt(required(fields, "threads")),
+                    Long.parseLong(required(fields, "runtime")),
+                    Integer.parseInt(required(fields, "makespan")), Integer.parseInt(required(fields, "best")),
+                    Integer.parseInt(required(fields, "lower_bound")),
+                    Long.parseLong(required(fields, "iterations")), Long.parseLong(required(fields, "evaluations")),
+                    Long.parseLong(required(fields, "infeasible")), Long.parseLong(required(fields, "taboo")),
+                    Long.parseLong(required(fields, "last_improvement")), required(fields, "version"));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a result: " + line, e);
+        }
+    }
+
+    private static String required(Map<String, String> fields, String name) {
+        String value = fields.get(name);
+        if(value == null) {
+            throw new IllegalArgumentException("Missing field " + name);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,107 @@
+package jobshop;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/** A file to which results are appended as soon as they are known, one line per result.
+ *
+ * The file is in CSV if its name ends with ".csv" and in JSON lines otherwise. Each line is flushed when written,
+ * so that the results of an interrupted benchmark are not lost. Results can be written from several threads.
+ * The results already in the file can be read back, e.g. to resume an interrupted benchmark.
+ */
+public final class ResultsFile implements Closeable {
+
+    /** Path of the file. */
+    public final Path path;
+
+    /** True if the file is in CSV, false for JSON lines. */
+    final boolean csv;
+
+    final BufferedWriter writer;
+
+    /** Opens the file for appending results, creating it if needed. If the last line of the file was truncated
+     * (e.g. by a crash), the new results start on a new line.
+     *
+     * @throws IOException If the file is a CSV file whose header is not the current one: its lines were written
+     *                     with other columns and the new results cannot be appended to them.
+     */
+    public ResultsFile(Path path) throws IOException {
+        this.path = path;
+        this.csv = path.getFileName().toString().endsWith(".csv");
+        boolean empty = !Files.exists(path) || Files.size(path) == 0;
+        if(csv && !empty) {
+            String header;
+            try (BufferedReader reader = Files.newBufferedReader(path)) {
+                header = reader.readLine();
+            }
+            if(!Result.csvHeader().equals(header)) {
+                throw new IOException(path + " was written with other columns, move it away or use another file");
+            }
+        }
+        boolean truncated = !empty && !endsWithNewLine(path);
+        this.writer = Files.newBufferedWriter(path, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        if(truncated) {
+            // terminates the truncated line, which is then ignored by read()
+            writer.newLine();
+            writer.flush();
+        }
+        if(csv && empty) {
+            writeLine(Result.csvHeader());
+        }
+    }
+
+    /** True if the last byte of the (non-empty) file is a line feed. */
+    private static boolean endsWithNewLine(Path path) throws IOException {
+        try (SeekableByteChannel channel = Files.newByteChannel(path)) {
+            ByteBuffer last = ByteBuffer.allocate(1);
+            channel.position(channel.size() - 1);
+            channel.read(last);
+            return last.get(0) == '\n';
+        }
+    }
+
+    /** Reads all results of the file. Lines that are not results (e.g. a line truncated by a crash) are ignored.
+     *
+     * @return The results of the file, or an empty list if the file does not exist.
+     */
+    public static List<Result> read(Path path) throws IOException {
+        List<Result> results = new ArrayList<>();
+        if(!Files.exists(path)) {
+            return results;
+        }
+        boolean csv = path.getFileName().toString().endsWith(".csv");
+        for(String line : Files.readAllLines(path)) {
+            try {
+                results.add(csv ? Result.fromCsv(line) : Result.fromJson(line));
+            } catch (IllegalArgumentException e) {
+                // not a result, skip the line
+            }
+        }
+        return results;
+    }
+
+    /** Appends the result at the end of the file. */
+    public synchronized void write(Result result) throws IOException {
+        writeLine(csv ? result.toCsv() : result.toJson());
+    }
+
+    private void writeLine(String line) throws IOException {
+        writer.write(line);
+        writer.newLine();
+        writer.flush();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+}
@@ -0,0 +1,89 @@
+package jobshop.encodings;
+
+import jobshop.Instance;
+
+import java.util.Arrays;
+
+/** A critical path of a decoded resource order, together with the heads and tails of all tasks.
+ *
+ * The head of a task is its earliest start time, and its tail is the length of the longest path from the end of the
+ * task to the end of the schedule. A task is on a critical path if and only if head + duration + tail = makespan.
+ *
+ * Tasks are represented by their identifiers (see Instance.taskId). A critical path is filled in by
+ * <code>Decoder.criticalPath</code> and can be reused for many decodings without any allocation.
+ */
+public final class CriticalPath {
+
+    /** Instance of the decoded solutions. */
+    public final Instance instance;
+
+    /** Tasks of the critical path, in order. Only the first <code>length</code> elements are used. */
+    final int[] tasks;
+
+    /** Number of tasks in the critical path. */
+    int length;
+
+    /** Position of each task in the critical path, -1 if the task is not on it. */
+    final int[] position;
+
+    /** Head of each task. */
+    final int[] heads;
+
+    /** Tail of each task. */
+    final int[] tails;
+
+    /** Makespan of the decoded solution. */
+    int makespan;
+
+    /** Creates an empty critical path for the given instance. */
+    public CriticalPath(Instance instance) {
+        this.instance = instance;
+        this.tasks = new int[instance.numTaskIds];
+        this.length = 0;
+        this.position = new int[instance.numTaskIds];
+        Arrays.fill(this.position, -1);
+        this.heads = new int[instance.numTaskIds];
+        this.tails = new int[instance.numTaskIds];
+    }
+
+    /** Number of tasks on the critical path. */
+    public int length() {
+        return length;
+    }
+
+    /** Identifier of the i-th task of the critical path. */
+    public int task(int i) {
+        return tasks[i];
+    }
+
+    /** Position of the task in the critical path, or -1 if the task is not on the critical path. */
+    public int positionOf(int taskId) {
+        return position[taskId];
+    }
+
+    /** Head of the task: its earliest start time. */
+    public int head(int taskId) {
+        return heads[taskId];
+    }
+
+    /** Tail of the task: length of the longest path from its end to the end of the schedule. */
+    public int tail(int taskId) {
+        return tails[taskId];
+    }
+
+    /** Makespan of the decoded solution. */
+    public int makespan() {
+        return makespan;
+    }
+
+    /** Tasks of the critical path in order. Only the first <code>length()</code> elements are meaningful.
+     * The array is owned by the critical path and must not be modified. */
+    public int[] tasks() {
+        return tasks;
+    }
+
+    /** Tasks of the critical path in order, as a new array of identifiers. */
+    public int[] toArray() {
+        return Arrays.copyOf(tasks, length);
+    }
+}
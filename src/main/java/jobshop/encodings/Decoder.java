@@ -0,0 +1,196 @@
+package jobshop.encodings;
+
+import jobshop.Instance;
+
+import java.util.Optional;
+
+/** Converts resource orders into schedules.
+ *
+ * Tasks are scheduled in a topological order of the disjunctive graph (Kahn's algorithm over the job and machine
+ * successors of each task), which takes linear time in the number of tasks.
+ * All working arrays are allocated once when the decoder is created, so that a decoder and a schedule can be
+ * reused to decode many resource orders without any allocation.
+ *
+ * A decoder is not thread safe: each thread should use its own.
+ */
+public final class Decoder {
+
+    /** Instance of the resource orders that this decoder can convert. */
+    public final Instance instance;
+
+    // all arrays below are indexed by the task identifier (see Instance.taskId)
+
+    /** Predecessor of each task on its machine, -1 if the task is the first on its machine. */
+    final int[] machinePred;
+
+    /** Successor of each task on its machine, -1 if the task is the last on its machine. */
+    final int[] machineSucc;
+
+    /** Number of unscheduled predecessors of each task. */
+    final int[] inDegree;
+
+    /** Tasks in the order in which they were scheduled (a topological order). */
+    final int[] topoOrder;
+
+    /** Schedule produced by the last successful call to <code>decode</code>, null if there is none. */
+    Schedule decoded;
+
+    /** Creates a new decoder for resource orders of the given instance. */
+    public Decoder(Instance instance) {
+        this.instance = instance;
+        int n = instance.numJobs * instance.numTasks;
+        this.machinePred = new int[n];
+        this.machineSucc = new int[n];
+        this.inDegree = new int[n];
+        this.topoOrder = new int[n];
+    }
+
+    /** Converts the resource order into a new schedule.
+     *
+     * @return A empty optional if the resource order is not valid. Otherwise, the optional contains its schedule.
+     */
+    public Optional<Schedule> decode(ResourceOrder order) {
+        Schedule schedule = new Schedule(instance);
+        if(decode(order, schedule)) {
+            return Optional.of(schedule);
+        } else {
+            return Optional.empty();
+        }
+    }
+
+    /** Computes the start times of all tasks of the resource order and writes them in the given schedule.
+     *
+     * @param order Complete resource order to decode.
+     * @param schedule Schedule in which the start times are written. Its previous content is overwritten.
+     * @return False if the resource order is incomplete or contains a cycle.
+     *         In this case the content of the schedule is unspecified.
+     */
+    public boolean decode(ResourceOrder order, Schedule schedule) {
+        decoded = null;
+        final int numTasks = instance.numTasks;
+        final int numJobs = instance.numJobs;
+        final int n = topoOrder.length;
+
+        // link every task to its neighbors on its machine
+        for(int m = 0 ; m < instance.numMachines ; m++) {
+            if(order.nextFreeSlot[m] < numJobs) {
+                // incomplete resource order
+                return false;
+            }
+            int[] queue = order.tasksByMachine[m];
+            int prev = -1;
+            for(int i = 0 ; i < numJobs ; i++) {
+                int cur = queue[i];
+                machinePred[cur] = prev;
+                if(prev != -1)
+                    machineSucc[prev] = cur;
+                prev = cur;
+            }
+            machineSucc[prev] = -1;
+        }
+
+        // for each task, the predecessor that delays it (recorded for the computation of critical paths)
+        if(schedule.criticalPred == null)
+            schedule.criticalPred = new int[n];
+        final int[] criticalPred = schedule.criticalPred;
+
+        // tasks with no predecessor on their job and machine can be scheduled first
+        int size = 0;
+        for(int t = 0 ; t < n ; t++) {
+            inDegree[t] = (instance.taskOf(t) == 0 ? 0 : 1) + (machinePred[t] == -1 ? 0 : 1);
+            if(inDegree[t] == 0)
+                topoOrder[size++] = t;
+        }
+
+        // schedule the tasks as soon as all their predecessors are scheduled
+        for(int next = 0 ; next < size ; next++) {
+            int t = topoOrder[next];
+            int task = instance.taskOf(t);
+
+            // earliest start time: after the previous task of the job and the previous task of the machine
+            int est = 0;
+            int pred = -1;
+            if(task != 0) {
+                est = schedule.endTime(t - 1);
+                pred = t - 1;
+            }
+            int mp = machinePred[t];
+            if(mp != -1 && schedule.endTime(mp) > est) {
+                est = schedule.endTime(mp);
+                pred = mp;
+            }
+            schedule.times[t] = est;
+            criticalPred[t] = est == 0 ? -1 : pred;
+
+            if(task != numTasks - 1 && --inDegree[t + 1] == 0)
+                topoOrder[size++] = t + 1;
+            int ms = machineSucc[t];
+            if(ms != -1 && --inDegree[ms] == 0)
+                topoOrder[size++] = ms;
+        }
+
+        // if some tasks could not be scheduled, there is a cyclic dependency
+        if(size != n) {
+            schedule.criticalPred = null;
+            schedule.topologicalOrder = null;
+            return false;
+        }
+        if(schedule.topologicalOrder == null)
+            schedule.topologicalOrder = new int[n];
+        System.arraycopy(topoOrder, 0, schedule.topologicalOrder, 0, n);
+        decoded = schedule;
+        return true;
+    }
+
+    /** Computes the heads, tails and a critical path of the last decoded resource order.
+     *
+     * Takes linear time in the number of tasks: the critical path is obtained by following, from the task that
+     * finishes last, the predecessors that delayed each task (recorded during decoding).
+     *
+     * @param path Critical path in which the result is written. Its previous content is overwritten.
+     */
+    public void criticalPath(CriticalPath path) {
+        if(decoded == null) {
+            throw new IllegalStateException("No resource order was successfully decoded");
+        }
+        final int numTasks = instance.numTasks;
+        final int n = topoOrder.length;
+
+        // heads are the start times, tails are computed backward in topological order
+        path.makespan = 0;
+        for(int i = n - 1 ; i >= 0 ; i--) {
+            int t = topoOrder[i];
+            int tail = 0;
+            if(instance.taskOf(t) != numTasks - 1)
+                tail = path.tails[t + 1] + instance.duration(t + 1);
+            int ms = machineSucc[t];
+            if(ms != -1)
+                tail = Math.max(tail, path.tails[ms] + instance.duration(ms));
+            path.tails[t] = tail;
+            path.heads[t] = decoded.startTime(t);
+            path.makespan = Math.max(path.makespan, path.heads[t] + instance.duration(t) + tail);
+        }
+
+        // clear the previous path and write the new one
+        for(int i = 0 ; i < path.length ; i++)
+            path.position[path.tasks[i]] = -1;
+        path.length = decoded.criticalPathIds(path.tasks);
+        for(int i = 0 ; i < path.length ; i++)
+            path.position[path.tasks[i]] = i;
+    }
+
+    /** Predecessor of the task on its machine in the last decoded resource order, -1 if there is none. */
+    public int machinePredecessor(int taskId) {
+        return machinePred[taskId];
+    }
+
+    /** Successor of the task on its machine in the last decoded resource order, -1 if there is none. */
+    public int machineSuccessor(int taskId) {
+        return machineSucc[taskId];
+    }
+
+    /** Returns the i-th task (as an identifier) in the topological order of the last decoded resource order. */
+    public int topologicalOrder(int i) {
+        return topoOrder[i];
+    }
+}
@@ -0,0 +1,161 @@
+package jobshop.encodings;
+
+import jobshop.Instance;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/** Encoding of a solution by a sequence of job numbers (operation-based or job-repetition encoding).
+ *
+ * Each job appears <code>numTasks</code> times in the sequence: the i-th occurrence of a job stands for its i-th
+ * task. The tasks are scheduled in the order of the sequence, each one as soon as its job and its machine are
+ * available (semi-active schedule). Any permutation of the job numbers is thus a valid solution, which makes this
+ * encoding convenient for genetic algorithms: crossovers and mutations only have to keep the number of occurrences
+ * of each job.
+ *
+ * Decoding takes linear time in the number of tasks (O(n.m) for n jobs and m machines) and, with
+ * <code>makespan(Instance, int[], int[])</code>, allocates nothing.
+ */
+public final class JobNumbers extends Encoding {
+
+    /** Sequence of job numbers, -1 for the positions that are not set yet. */
+    public final int[] jobs;
+
+    /** Number of positions of the sequence that are set. */
+    int nextToSet = 0;
+
+    /** Creates a new empty sequence. */
+    public JobNumbers(Instance instance) {
+        super(instance);
+        this.jobs = new int[instance.numTaskIds];
+        Arrays.fill(jobs, -1);
+    }
+
+    /** Creates a sequence from the given job numbers (which are copied). */
+    public JobNumbers(Instance instance, int[] jobs) {
+        super(instance);
+        if(jobs.length != instance.numTaskIds) {
+            throw new IllegalArgumentException("Expected " + instance.numTaskIds + " job numbers, got " + jobs.length);
+        }
+        this.jobs = jobs.clone();
+        this.nextToSet = jobs.length;
+    }
+
+    /** Creates a sequence from a schedule: the tasks are sorted by start time, so that decoding the sequence gives
+     * a schedule at least as good (the same one if the schedule is semi-active). */
+    public static JobNumbers fromSchedule(Schedule schedule) {
+        Instance instance = schedule.instance;
+        // sort keys: start time in the high bits, task identifier in the low bits (the tasks of a job that start at
+        // the same time, e.g. of zero duration, stay in the order of the job)
+        long[] keys = new long[instance.numTaskIds];
+        for(int t = 0; t < instance.numTaskIds; t++) {
+            keys[t] = ((long) schedule.startTime(t) << 32) | t;
+        }
+        Arrays.sort(keys);
+        JobNumbers sol = new JobNumbers(instance);
+        for(long key : keys) {
+            sol.addTaskOfJob(instance.jobOf((int) key));
+        }
+        return sol;
+    }
+
+    /** Appends the next task of the given job to the sequence. */
+    public void addTaskOfJob(int job) {
+        jobs[nextToSet++] = job;
+    }
+
+    /** Number of ints needed by the buffer of <code>makespan(Instance, int[], int[])</code>. */
+    public static int bufferSize(Instance instance) {
+        return 2 * instance.numJobs + instance.numMachines;
+    }
+
+    /** Computes the makespan of the semi-active schedule of a sequence of job numbers, without allocating.
+     *
+     * @param jobs Complete sequence of job numbers, each job appearing exactly <code>numTasks</code> times.
+     * @param buffer Working array of at least <code>bufferSize(instance)</code> ints. Its content is overwritten.
+     * @return The makespan of the sequence.
+     */
+    public static int makespan(Instance instance, int[] jobs, int[] buffer) {
+        final int numJobs = instance.numJobs;
+        // next task of each job, end of the last task of each job, end of the last task of each machine
+        Arrays.fill(buffer, 0, bufferSize(instance), 0);
+        int makespan = 0;
+        for(int job : jobs) {
+            int t = instance.taskId(job, buffer[job]++);
+            int machine = numJobs * 2 + instance.machine(t);
+            int end = Math.max(buffer[numJobs + job], buffer[machine]) + instance.duration(t);
+            buffer[numJobs + job] = end;
+            buffer[machine] = end;
+            makespan = Math.max(makespan, end);
+        }
+        return makespan;
+    }
+
+    @Override
+    public Optional<Schedule> toSchedule() {
+        // each job must appear exactly numTasks times
+        int[] occurrences = new int[instance.numJobs];
+        for(int job : jobs) {
+            if(job < 0 || job >= instance.numJobs || ++occurrences[job] > instance.numTasks) {
+                return Optional.empty();
+            }
+        }
+
+        final int n = instance.numTaskIds;
+        Schedule schedule = new Schedule(instance);
+        // the sequence is a topological order in which the tasks of each machine appear in the order of the machine:
+        // the schedule is recorded as decoded, with the predecessor that delays each task
+        schedule.topologicalOrder = new int[n];
+        schedule.criticalPred = new int[n];
+        int[] nextTask = new int[instance.numJobs];
+        int[] lastOfMachine = new int[instance.numMachines];
+        Arrays.fill(lastOfMachine, -1);
+        for(int i = 0; i < n; i++) {
+            int job = jobs[i];
+            int t = instance.taskId(job, nextTask[job]++);
+            int machine = instance.machine(t);
+
+            int est = 0;
+            int pred = -1;
+            if(instance.taskOf(t) != 0) {
+                est = schedule.endTime(t - 1);
+                pred = t - 1;
+            }
+            int mp = lastOfMachine[machine];
+            if(mp != -1 && schedule.endTime(mp) > est) {
+                est = schedule.endTime(mp);
+                pred = mp;
+            }
+            schedule.times[t] = est;
+            schedule.criticalPred[t] = est == 0 ? -1 : pred;
+            schedule.topologicalOrder[i] = t;
+            lastOfMachine[machine] = t;
+        }
+        return Optional.of(schedule);
+    }
+
+    /** Creates an exact copy of this sequence. */
+    public JobNumbers copy() {
+        JobNumbers copy = new JobNumbers(instance);
+        System.arraycopy(jobs, 0, copy.jobs, 0, jobs.length);
+        copy.nextToSet = nextToSet;
+        return copy;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(jobs);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if(this == o) return true;
+        if(o == null || getClass() != o.getClass()) return false;
+        return Arrays.equals(jobs, ((JobNumbers) o).jobs);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(jobs);
+    }
+}
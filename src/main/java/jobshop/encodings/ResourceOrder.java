@@ -3,7 +3,6 @@ package jobshop.encodings;
 import jobshop.Instance;
 
 import java.util.Arrays;
-import java.util.Comparator;
 import java.util.Optional;
 import java.util.stream.IntStream;
 
@@ -11,22 +10,31 @@ import java.util.stream.IntStream;
 public final class ResourceOrder extends Encoding {
 
     // for each machine m, taskByMachine[m] is an array of tasks to be
-    // executed on this machine in the same order
-    final Task[][] tasksByMachine;
+    // executed on this machine in the same order. Tasks are represented by their identifier (see Instance.taskId)
+    final int[][] tasksByMachine;
 
     // for each machine, indicate how many tasks have been initialized
     final int[] nextFreeSlot;
 
+    // for each task (by identifier), its index in the queue of its machine (-1 if not yet added)
+    final int[] positions;
+
     /** Creates a new empty resource order. */
     public ResourceOrder(Instance instance)
     {
         super(instance);
 
-        // matrix of null elements (null is the default value of objects)
-        tasksByMachine = new Task[instance.numMachines][instance.numJobs];
+        // matrix of unset elements (-1)
+        tasksByMachine = new int[instance.numMachines][instance.numJobs];
+        for(int[] queue : tasksByMachine) {
+            Arrays.fill(queue, -1);
+        }
 
         // no task scheduled on any machine (0 is the default value)
         nextFreeSlot = new int[instance.numMachines];
+
+        positions = new int[instance.numTaskIds];
+        Arrays.fill(positions, -1);
     }
 
     /** Creates a resource order from a schedule. */
@@ -35,28 +43,49 @@ public final class ResourceOrder extends Encoding {
         super(schedule.instance);
         Instance pb = schedule.instance;
 
-        this.tasksByMachine = new Task[pb.numMachines][];
+        this.tasksByMachine = new int[pb.numMachines][pb.numJobs];
         this.nextFreeSlot = new int[instance.numMachines];
+        this.positions = new int[pb.numTaskIds];
+
+        if(schedule.topologicalOrder != null) {
+            // the schedule was produced by a Decoder: a topological order of its tasks is known, in which the tasks
+            // of each machine appear in the order of the machine, no sorting needed
+            for(int i = 0; i < pb.numTaskIds ; i++) {
+                int t = schedule.topologicalOrder[i];
+                int m = pb.machine(t);
+                positions[t] = nextFreeSlot[m];
+                tasksByMachine[m][nextFreeSlot[m]++] = t;
+            }
+            return;
+        }
 
+        // sort keys of the tasks of a machine: start time in the high bits, task identifier in the low bits
+        long[] keys = new long[pb.numJobs];
         for(int m = 0; m<schedule.instance.numMachines ; m++) {
-            final int machine = m;
-
             // for this machine, find all tasks that are executed on it and sort them by their start time
-            tasksByMachine[m] =
-                    IntStream.range(0, pb.numJobs) // all job numbers
-                            .mapToObj(j -> new Task(j, pb.task_with_machine(j, machine))) // all tasks on this machine (one per job)
-                            .sorted(Comparator.comparing(t -> schedule.startTime(t.job, t.task))) // sorted by start time
-                            .toArray(Task[]::new); // as new array and store in tasksByMachine
+            // (ties are broken by job number)
+            for(int j = 0; j < pb.numJobs ; j++) {
+                int t = pb.taskId(j, pb.task_with_machine(j, m));
+                keys[j] = ((long) schedule.startTime(t) << 32) | t;
+            }
+            Arrays.sort(keys);
+            for(int i = 0; i < pb.numJobs ; i++) {
+                tasksByMachine[m][i] = (int) keys[i];
+            }
 
             // indicate that all tasks have been initialized for machine m
             nextFreeSlot[m] = instance.numJobs;
+            for(int i = 0; i < pb.numJobs ; i++) {
+                positions[tasksByMachine[m][i]] = i;
+            }
         }
     }
 
     public ResourceOrder(ResourceOrder original) {
         super(original.instance);
         this.nextFreeSlot = original.nextFreeSlot.clone();
-        this.tasksByMachine = new Task[original.tasksByMachine.length][];
+        this.positions = original.positions.clone();
+        this.tasksByMachine = new int[original.tasksByMachine.length][];
         for(int i=0 ; i<this.tasksByMachine.length ; i++) {
             this.tasksByMachine[i] = original.tasksByMachine[i].clone();
         }
@@ -64,10 +93,16 @@ public final class ResourceOrder extends Encoding {
 
     /** Adds the given task to the queue of the given machine. */
     public void addTaskToMachine(int machine, Task task) {
-        if(instance.machine(task) != machine) {
-            throw new RuntimeException("Task " + task + " cannot be scheduled on machine "+machine);
+        addTaskToMachine(machine, instance.taskId(task));
+    }
+
+    /** Adds the task with the given identifier to the queue of the given machine. */
+    public void addTaskToMachine(int machine, int taskId) {
+        if(instance.machine(taskId) != machine) {
+            throw new RuntimeException("Task " + instance.task(taskId) + " cannot be scheduled on machine "+machine);
         }
-        tasksByMachine[machine][nextFreeSlot[machine]] = task;
+        tasksByMachine[machine][nextFreeSlot[machine]] = taskId;
+        positions[taskId] = nextFreeSlot[machine];
         nextFreeSlot[machine] += 1;
     }
 
@@ -78,9 +113,32 @@ public final class ResourceOrder extends Encoding {
      * @return The i-th task scheduled on a machine.
      */
     public Task getTaskOfMachine(int machine, int taskIndex) {
+        return instance.task(tasksByMachine[machine][taskIndex]);
+    }
+
+    /** Returns the identifier of the i-th task scheduled on a particular machine.
+     *
+     * @param machine Machine on which the task to retrieve is scheduled.
+     * @param taskIndex Index of the task in the queue for this machine.
+     * @return The identifier of the i-th task scheduled on a machine.
+     */
+    public int getTaskIdOfMachine(int machine, int taskIndex) {
         return tasksByMachine[machine][taskIndex];
     }
 
+    /** Returns the index of the given task (by identifier) in the queue of its machine, in constant time.
+     *
+     * @return The index of the task, or -1 if it has not been added to its machine.
+     */
+    public int positionOf(int taskId) {
+        return positions[taskId];
+    }
+
+    /** Returns the index of the given task in the queue of its machine, or -1 if it has not been added. */
+    public int positionOf(Task task) {
+        return positionOf(instance.taskId(task));
+    }
+
     /** Exchange the order of two tasks that are scheduled on a given machine.
      *
      * @param machine Machine on which the two tasks appear (line on which to perform the exchange)
@@ -88,13 +146,42 @@ public final class ResourceOrder extends Encoding {
      * @param indexTask2 Position of the second task in the machine's queue
      */
     public void swapTasks(int machine, int indexTask1, int indexTask2) {
-        Task tmp = tasksByMachine[machine][indexTask1];
+        int tmp = tasksByMachine[machine][indexTask1];
         tasksByMachine[machine][indexTask1] = tasksByMachine[machine][indexTask2];
         tasksByMachine[machine][indexTask2] = tmp;
+        positions[tasksByMachine[machine][indexTask1]] = indexTask1;
+        positions[tasksByMachine[machine][indexTask2]] = indexTask2;
+    }
+
+    /** Moves a task to another position in the queue of its machine, shifting the tasks in between.
+     *
+     * @param machine Machine on which the task is scheduled.
+     * @param from Position of the task in the machine's queue.
+     * @param to Position of the task in the machine's queue after the move.
+     */
+    public void moveTask(int machine, int from, int to) {
+        int[] queue = tasksByMachine[machine];
+        int moved = queue[from];
+        int step = from < to ? 1 : -1;
+        for(int i = from ; i != to ; i += step) {
+            queue[i] = queue[i + step];
+            positions[queue[i]] = i;
+        }
+        queue[to] = moved;
+        positions[moved] = to;
     }
 
     @Override
     public Optional<Schedule> toSchedule() {
+        return new Decoder(instance).decode(this);
+    }
+
+    /** Reference implementation of the conversion into a schedule.
+     *
+     * Much slower than <code>toSchedule()</code> (quadratic in the number of tasks) but straightforward.
+     * It is kept to check that both conversions produce the same schedules.
+     */
+    public Optional<Schedule> toScheduleReference() {
         // indicates, for each task that have been scheduled, its start time
         Schedule schedule = new Schedule(instance);
 
@@ -118,7 +205,7 @@ public final class ResourceOrder extends Encoding {
             Optional<Task> schedulable =
                     IntStream.range(0, instance.numMachines) // all machines ...
                     .filter(m -> nextToScheduleByMachine[m] < instance.numJobs) // ... with unscheduled jobs
-                    .mapToObj(m -> this.tasksByMachine[m][nextToScheduleByMachine[m]]) // tasks that are next to schedule on a machine ...
+                    .mapToObj(m -> instance.task(this.tasksByMachine[m][nextToScheduleByMachine[m]])) // tasks that are next to schedule on a machine ...
                     .filter(task -> task.task == nextToScheduleByJob[task.job])  // ... and on their job
                     .findFirst(); // select the first one if any
 
@@ -168,7 +255,7 @@ public final class ResourceOrder extends Encoding {
             s.append("Machine ").append(m).append(" : ");
             for(int j=0; j<instance.numJobs; j++)
             {
-                s.append(tasksByMachine[m][j]).append(" ; ");
+                s.append(tasksByMachine[m][j] == -1 ? null : instance.task(tasksByMachine[m][j])).append(" ; ");
             }
             s.append("\n");
         }
@@ -186,7 +273,7 @@ public final class ResourceOrder extends Encoding {
 
     @Override
     public int hashCode() {
-        int result = Arrays.hashCode(tasksByMachine);
+        int result = Arrays.deepHashCode(tasksByMachine);
         result = 31 * result + Arrays.hashCode(nextFreeSlot);
         return result;
     }
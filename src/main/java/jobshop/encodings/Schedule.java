@@ -3,7 +3,6 @@ package jobshop.encodings;
 import jobshop.Instance;
 
 import java.util.*;
-import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 /** Direct encoding of the solution to JobShop problem.
@@ -12,23 +11,28 @@ import java.util.stream.IntStream;
  */
 public class Schedule extends Encoding {
 
-    // start times of each job and task
-    // times[j][i] is the start time of task (j,i) : i^th task of the j^th job
-    final int[][] times;
+    // start times of each task, indexed by task identifier
+    // times[instance.taskId(j, i)] is the start time of task (j,i) : i^th task of the j^th job
+    final int[] times;
+
+    // for each task (by identifier), the task that delays its start, -1 if it starts at time 0.
+    // Recorded by the Decoder that produced this schedule, null if unknown.
+    int[] criticalPred;
+
+    // the tasks (by identifier) in the topological order in which they were scheduled.
+    // Recorded by the Decoder that produced this schedule, null if unknown.
+    int[] topologicalOrder;
 
     /** Creates a new schedule for the given instance where all start times are uninitialized. */
     public Schedule(Instance instance) {
         super(instance);
-        this.times = new int[instance.numJobs][];
-        for(int j = 0; j < instance.numJobs ; j++) {
-            this.times[j] = new int[instance.numTasks];
-        }
+        this.times = new int[instance.numTaskIds];
     }
 
 
     /** Start time of the given task. */
     public int startTime(int job, int task) {
-        return times[job][task];
+        return times[instance.taskId(job, task)];
     }
 
     /** Start time of the given task. */
@@ -36,6 +40,11 @@ public class Schedule extends Encoding {
         return startTime(task.job, task.task);
     }
 
+    /** Start time of the task with the given identifier. */
+    public int startTime(int taskId) {
+        return times[taskId];
+    }
+
     /** End time of the given task. */
     public int endTime(int job, int task) {
         return startTime(job, task) + instance.duration(job, task);
@@ -46,40 +55,115 @@ public class Schedule extends Encoding {
         return endTime(task.job, task.task);
     }
 
+    /** End time of the task with the given identifier. */
+    public int endTime(int taskId) {
+        return times[taskId] + instance.duration(taskId);
+    }
+
+    /** Sets the start time of the task with the given identifier. */
+    public void setStartTime(int taskId, int startTime) {
+        times[taskId] = startTime;
+        // the recorded predecessors and order may not hold anymore
+        criticalPred = null;
+        topologicalOrder = null;
+    }
+
     /** Sets the start time of the given task. */
     public void setStartTime(int job, int task, int startTime) {
-        times[job][task] = startTime;
+        setStartTime(instance.taskId(job, task), startTime);
     }
 
-    /** Returns true if this schedule is valid (no constraint is violated) */
-    public boolean isValid() {
-        for(int j = 0; j<instance.numJobs ; j++) {
-            for(int t = 1; t< instance.numTasks ; t++) {
-                if(startTime(j, t-1) + instance.duration(j, t-1) > startTime(j, t))
-                    return false;
-            }
-            for(int t = 0; t< instance.numTasks ; t++) {
-                if(startTime(j, t) < 0)
-                    return false;
-            }
+    /** A constraint of the problem that is violated by a schedule. */
+    public static final class Violation {
+
+        /** The different kinds of constraints. */
+        public enum Kind {
+            /** A task starts before time 0. */
+            NEGATIVE_START,
+            /** A task starts before the end of the previous task of its job. */
+            JOB_PRECEDENCE,
+            /** Two tasks overlap on their machine. */
+            MACHINE_OVERLAP
         }
 
-        for (int machine = 0; machine < instance.numMachines ; machine++) {
-            for(int j1 = 0; j1< instance.numJobs ; j1++) {
-                int t1 = instance.task_with_machine(j1, machine);
-                for(int j2 = j1+1; j2< instance.numJobs ; j2++) {
-                    int t2 = instance.task_with_machine(j2, machine);
+        /** Kind of the violated constraint. */
+        public final Kind kind;
+        /** Identifier of the first task involved. */
+        public final int first;
+        /** Identifier of the second task involved, -1 for a NEGATIVE_START. */
+        public final int second;
 
-                    boolean t1_first = endTime(j1, t1) <= startTime(j2, t2);
-                    boolean t2_first = endTime(j2, t2) <= startTime(j1, t1);
+        final Instance instance;
 
-                    if(!t1_first && !t2_first)
-                        return false;
-                }
+        Violation(Instance instance, Kind kind, int first, int second) {
+            this.instance = instance;
+            this.kind = kind;
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        public String toString() {
+            switch (kind) {
+                case NEGATIVE_START:
+                    return "Task " + instance.task(first) + " starts before time 0";
+                case JOB_PRECEDENCE:
+                    return "Task " + instance.task(second) + " starts before the end of " + instance.task(first);
+                default:
+                    return "Tasks " + instance.task(first) + " and " + instance.task(second) + " overlap on machine "
+                            + instance.machine(first);
             }
         }
+    }
 
-        return true;
+    /** Returns true if this schedule is valid (no constraint is violated) */
+    public boolean isValid() {
+        return firstViolation().isEmpty();
+    }
+
+    /** Returns true if the schedule was produced by a Decoder and was not modified since.
+     * Such a schedule is valid by construction and does not need to be checked. */
+    public boolean isDecoded() {
+        return topologicalOrder != null;
+    }
+
+    /** Searches for a constraint violated by this schedule, in O(n.m.log(n)) for n jobs and m machines.
+     *
+     * The job constraints are checked first, then the tasks of each machine are sorted by start time and
+     * swept in this order.
+     *
+     * @return The first violation found, or an empty optional if the schedule is valid.
+     */
+    public Optional<Violation> firstViolation() {
+        for(int id = 0 ; id < instance.numTaskIds ; id++) {
+            if(startTime(id) < 0)
+                return Optional.of(new Violation(instance, Violation.Kind.NEGATIVE_START, id, -1));
+            if(instance.taskOf(id) > 0 && endTime(id - 1) > startTime(id))
+                return Optional.of(new Violation(instance, Violation.Kind.JOB_PRECEDENCE, id - 1, id));
+        }
+
+        // tasks of a machine, as start time (high bits) and identifier (low bits), so that sorting the keys
+        // sorts the tasks by start time
+        long[] keys = new long[instance.numJobs];
+        for(int machine = 0 ; machine < instance.numMachines ; machine++) {
+            int size = 0;
+            for(int job = 0 ; job < instance.numJobs ; job++) {
+                int id = instance.taskId(job, instance.task_with_machine(job, machine));
+                keys[size++] = ((long) startTime(id) << 32) | id;
+            }
+            Arrays.sort(keys, 0, size);
+
+            // a task overlaps a previous one iff it overlaps the previous one that ends last
+            int last = (int) keys[0];
+            for(int i = 1 ; i < size ; i++) {
+                int id = (int) keys[i];
+                if(endTime(last) > startTime(id) && endTime(id) > startTime(last))
+                    return Optional.of(new Violation(instance, Violation.Kind.MACHINE_OVERLAP, last, id));
+                if(endTime(id) > endTime(last))
+                    last = id;
+            }
+        }
+        return Optional.empty();
     }
 
     /** Makespan of the solution.
@@ -113,51 +197,83 @@ public class Schedule extends Encoding {
      * @return A sequence of task along a critical path.
      */
     public List<Task> criticalPath() {
+        int[] ids = criticalPathIds();
+        List<Task> path = new ArrayList<>(ids.length);
+        for(int id : ids) {
+            path.add(instance.task(id));
+        }
+        assert isCriticalPath(path);
+        return path;
+    }
+
+    /** Computes a critical path of the schedule.
+     *
+     * @return The identifiers of the tasks along a critical path, in order.
+     */
+    public int[] criticalPathIds() {
+        int[] path = new int[instance.numTaskIds];
+        int length = criticalPathIds(path);
+        return Arrays.copyOf(path, length);
+    }
+
+    /** Computes a critical path of the schedule and writes the identifiers of its tasks, in order, in the given array.
+     *
+     * If the schedule was produced by a Decoder, the path is obtained in linear time by following the predecessors
+     * recorded during decoding. Otherwise, the delaying predecessor of each task is searched on its job and machine.
+     *
+     * @param path Array in which the path is written, of size at least <code>instance.numTaskIds</code>.
+     * @return The number of tasks in the critical path.
+     */
+    int criticalPathIds(int[] path) {
         // select task with greatest end time
-        Task ldd = IntStream.range(0, instance.numJobs)
-                .mapToObj(j -> new Task(j, instance.numTasks-1))
-                .max(Comparator.comparing(this::endTime))
-                .get();
-        assert endTime(ldd) == makespan();
-
-        // list that will contain the critical path.
-        // we construct it from the end, starting with the
-        // task that finishes last
-        LinkedList<Task> path = new LinkedList<>();
-        path.add(0,ldd);
-
-        // keep adding tasks to the path until the first task in the path
-        // starts a time 0
-        while(startTime(path.getFirst()) != 0) {
-            Task cur = path.getFirst();
-            int machine = instance.machine(cur.job, cur.task);
-
-            // will contain the task that was delaying the start
-            // of our current task
-            Optional<Task> latestPredecessor = Optional.empty();
-
-            if(cur.task > 0) {
-                // our current task has a predecessor on the job
-                Task predOnJob = new Task(cur.job, cur.task -1);
-
-                // if it was the delaying task, save it to predecessor
-                if(endTime(predOnJob) == startTime(cur))
-                    latestPredecessor = Optional.of(predOnJob);
-            }
-            if(latestPredecessor.isEmpty()) {
-                // no latest predecessor found yet, look among tasks executing on the same machine
-                latestPredecessor = IntStream.range(0, instance.numJobs)
-                        .mapToObj(j -> new Task(j, instance.task_with_machine(j, machine)))
-                        .filter(t -> endTime(t) == startTime(cur))
-                        .findFirst();
+        int ldd = instance.taskId(0, instance.numTasks-1);
+        for(int j = 1; j < instance.numJobs ; j++) {
+            int last = instance.taskId(j, instance.numTasks-1);
+            if(endTime(last) > endTime(ldd))
+                ldd = last;
+        }
+
+        // the path is constructed from the end, starting with the
+        // task that finishes last, and reversed afterwards
+        int length = 0;
+        path[length++] = ldd;
+
+        // keep adding tasks to the path until the last task added starts at time 0
+        int cur = ldd;
+        while(startTime(cur) != 0) {
+            // will contain the task that was delaying the start of our current task
+            int latestPredecessor = -1;
+
+            if(criticalPred != null) {
+                // recorded when decoding
+                latestPredecessor = criticalPred[cur];
+            } else {
+                if(instance.taskOf(cur) > 0 && endTime(cur - 1) == startTime(cur)) {
+                    // our current task has a predecessor on the job that was the delaying task
+                    latestPredecessor = cur - 1;
+                } else {
+                    // look among tasks executing on the same machine
+                    int machine = instance.machine(cur);
+                    for(int j = 0; j < instance.numJobs && latestPredecessor == -1 ; j++) {
+                        int t = instance.taskId(j, instance.task_with_machine(j, machine));
+                        if(endTime(t) == startTime(cur))
+                            latestPredecessor = t;
+                    }
+                }
             }
             // at this point we should have identified a latest predecessor, either on the job or on the machine
-            assert latestPredecessor.isPresent() && endTime(latestPredecessor.get()) == startTime(cur);
-            // insert predecessor at the beginning of the path
-            path.add(0, latestPredecessor.get());
+            assert latestPredecessor != -1 && endTime(latestPredecessor) == startTime(cur);
+            path[length++] = latestPredecessor;
+            cur = latestPredecessor;
         }
-        assert isCriticalPath(path);
-        return path;
+
+        // reverse the path so that it starts with the first task
+        for(int i = 0, k = length - 1 ; i < k ; i++, k--) {
+            int tmp = path[i];
+            path[i] = path[k];
+            path[k] = tmp;
+        }
+        return length;
     }
 
     @Override
@@ -248,20 +364,11 @@ public class Schedule extends Encoding {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Schedule schedule = (Schedule) o;
-        if (times.length != schedule.times.length) {
-            return false;
-        }
-        for(int i=0; i<times.length; i++) {
-            if (!Arrays.equals(times[i], schedule.times[i])) {
-                return false;
-            }
-        }
-        return true;
+        return Arrays.equals(times, schedule.times);
     }
 
     @Override
     public int hashCode() {
-        return Arrays.stream(times).map(Arrays::hashCode).collect(Collectors.toList()).hashCode();
-
+        return Arrays.hashCode(times);
     }
 }
@@ -0,0 +1,575 @@
+package jobshop.solvers;
+
+import jobshop.Instance;
+import jobshop.encodings.Schedule;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/** An exact solver: branch and bound on the disjunctive graph.
+ *
+ * Each node of the search tree is a set of machine arcs (a partial selection of the disjunctive graph). Its lower
+ * bound is computed from the heads and tails of the tasks in the graph of the selected arcs, with the preemptive
+ * one-machine bound of each machine (see <code>Instance.jacksonPreemptiveSchedule</code>). Before that, the pairs of
+ * tasks that can only be ordered one way in a solution better than the incumbent are fixed (immediate selection).
+ *
+ * At each node, a schedule that respects the selection is built with a Giffler-Thompson heuristic, and the search
+ * branches on the blocks of its critical path (Brucker, Jurisch and Sievers 1994): a better solution must move
+ * a task of some block before the first or after the last task of the block. The children are disjoint.
+ *
+ * The subtrees are explored in parallel in a work-stealing pool, and share the incumbent, which is first given by
+ * a taboo search. When the token is cancelled, the best solution is returned and the lower bound proven so far
+ * (the smallest bound of the unexplored nodes) is reported in the statistics of the solver.
+ */
+public class BranchAndBoundSolver implements Solver {
+
+    /** Solver giving the initial incumbent. */
+    final Solver seedSolver;
+    /** Maximal time (in milliseconds) given to the seed solver. */
+    final long seedTime;
+    /** Number of threads exploring the search tree. */
+    final int threads;
+    /** Work done during the last run: explored nodes (iterations), evaluated nodes and infeasible nodes. */
+    final SolverStatistics statistics = new SolverStatistics();
+
+    /** Creates a new branch and bound solver.
+     *
+     * @param seedSolver Solver (typically a taboo search) giving the initial incumbent.
+     * @param seedTime Maximal time (in milliseconds) given to the seed solver.
+     * @param threads Number of threads exploring the search tree.
+     */
+    public BranchAndBoundSolver(Solver seedSolver, long seedTime, int threads) {
+        this.seedSolver = seedSolver;
+        this.seedTime = seedTime;
+        this.threads = threads;
+    }
+
+    @Override
+    public Solver withSeed(long seed) {
+        return new BranchAndBoundSolver(seedSolver.withSeed(seed), seedTime, threads);
+    }
+
+    @Override
+    public SolverStatistics statistics() {
+        return statistics;
+    }
+
+    @Override
+    public Optional<Schedule> solve(Instance instance, long deadline) {
+        // stops early if a solution reaches the lower bound of the instance
+        return solve(instance, new CancellationToken(deadline, instance.lowerBound()), s -> {});
+    }
+
+    @Override
+    public Optional<Schedule> solve(Instance instance, CancellationToken token, Consumer<Schedule> improvements) {
+        statistics.reset();
+        Search search = new Search(instance, token, improvements);
+
+        // initial incumbent
+        long seedDeadline = Math.min(token.deadline(), System.currentTimeMillis() + seedTime);
+        seedSolver.solve(instance, new CancellationToken(seedDeadline, token.target()), s -> {})
+                .ifPresent(search::offer);
+
+        Node root = new Node(instance);
+        if (search.evaluate(root)) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            pool.execute(search.new Explore(root));
+            pool.shutdown();
+            try {
+                // the tasks stop by themselves when the token is cancelled
+                pool.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                token.cancel();
+                pool.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        synchronized (search) {
+            if (search.schedule == null) {
+                return Optional.empty();
+            }
+            // all nodes whose bound is below the incumbent were explored, except the open ones
+            int bound = Math.min(search.makespan, search.openBound.get());
+            statistics.setLowerBound(Math.max(bound, instance.lowerBound()));
+            return Optional.of(search.schedule);
+        }
+    }
+
+    /** A node of the search tree: the machine arcs that are selected, and the heads and tails of the tasks in the
+     * graph of these arcs. */
+    static final class Node {
+        /** precedes[machine * numJobs * numJobs + j1 * numJobs + j2] is true if the task of job j1 on the machine
+         * must be processed before the task of job j2. */
+        final boolean[] precedes;
+        /** Earliest start of each task (by task id) in the graph of the selected arcs. */
+        final int[] heads;
+        /** Length of the longest path after each task (by task id) in the graph of the selected arcs. */
+        final int[] tails;
+        /** Lower bound of the makespan of the solutions that contain the selected arcs. */
+        int bound;
+
+        Node(Instance instance) {
+            this(new boolean[instance.numMachines * instance.numJobs * instance.numJobs], instance.numTaskIds);
+        }
+
+        private Node(boolean[] precedes, int numTaskIds) {
+            this.precedes = precedes;
+            this.heads = new int[numTaskIds];
+            this.tails = new int[numTaskIds];
+        }
+
+        /** A child of this node, with the same arcs (the heads and tails are not computed yet). */
+        Node child() {
+            return new Node(precedes.clone(), heads.length);
+        }
+    }
+
+    /** State of a run, shared by all the tasks exploring the tree. */
+    final class Search {
+        final Instance instance;
+        final CancellationToken token;
+        final Consumer<Schedule> improvements;
+        /** Best solution found so far, guarded by the lock of the search. */
+        Schedule schedule = null;
+        /** Makespan of the incumbent, read without lock to prune the nodes. */
+        volatile int makespan = Integer.MAX_VALUE;
+        /** Smallest bound of the nodes left unexplored because the token was cancelled. */
+        final AtomicInteger openBound = new AtomicInteger(Integer.MAX_VALUE);
+        /** Duration of each task, by task id. */
+        final int[] durations;
+        /** onMachine[machine][job] is the id of the task of the job on the machine. */
+        final int[][] onMachine;
+
+        Search(Instance instance, CancellationToken token, Consumer<Schedule> improvements) {
+            this.instance = instance;
+            this.token = token;
+            this.improvements = improvements;
+            durations = new int[instance.numTaskIds];
+            for (int id = 0; id < instance.numTaskIds; id++) {
+                durations[id] = instance.duration(id);
+            }
+            onMachine = new int[instance.numMachines][instance.numJobs];
+            for (int machine = 0; machine < instance.numMachines; machine++) {
+                for (int job = 0; job < instance.numJobs; job++) {
+                    onMachine[machine][job] = instance.taskId(job, instance.task_with_machine(job, machine));
+                }
+            }
+        }
+
+        /** Replaces the incumbent if the given solution is better. */
+        synchronized void offer(Schedule candidate) {
+            int candidateMakespan = candidate.makespan();
+            if (candidateMakespan < makespan) {
+                schedule = candidate;
+                makespan = candidateMakespan;
+                statistics.progress(statistics.iterations(), candidateMakespan);
+                improvements.accept(candidate);
+                token.offer(candidateMakespan);
+            }
+        }
+
+        /** Explores the subtree of a node, unless the token is cancelled. */
+        final class Explore extends RecursiveAction {
+            private static final long serialVersionUID = 1L;
+
+            final Node node;
+
+            Explore(Node node) {
+                this.node = node;
+            }
+
+            @Override
+            protected void compute() {
+                if (node.bound >= makespan) {
+                    return;
+                }
+                if (token.isCancelled()) {
+                    openBound.accumulateAndGet(node.bound, Math::min);
+                    return;
+                }
+                statistics.iterations.increment();
+
+                int[] path = solveHeuristically(node);
+                if (node.bound >= makespan) {
+                    // the heuristic solution is optimal for this node
+                    return;
+                }
+                List<Node> children = branch(node, path);
+                children.sort(Comparator.comparingInt(child -> child.bound));
+                List<Explore> tasks = new ArrayList<>(children.size());
+                for (Node child : children) {
+                    tasks.add(new Explore(child));
+                }
+                invokeAll(tasks);
+            }
+        }
+
+        /** Computes the heads, the tails and the bound of a node, after fixing the arcs found by immediate
+         * selection.
+         *
+         * @return False if the node contains no solution better than the incumbent.
+         */
+        boolean evaluate(Node node) {
+            statistics.evaluations.increment();
+            do {
+                if (!computeHeadsAndTails(node)) {
+                    // the selected arcs form a cycle
+                    statistics.infeasible.increment();
+                    return false;
+                }
+            } while (immediateSelection(node));
+
+            int bound = 0;
+            for (int machine = 0; machine < instance.numMachines; machine++) {
+                bound = Math.max(bound, Instance.jacksonPreemptiveSchedule(onMachine[machine], instance.numJobs,
+                        node.heads, durations, node.tails));
+            }
+            node.bound = bound;
+            return bound < makespan;
+        }
+
+        /** Computes the longest paths before and after each task in the graph of the job arcs and of the selected
+         * machine arcs.
+         *
+         * @return False if the graph has a cycle.
+         */
+        private boolean computeHeadsAndTails(Node node) {
+            int numJobs = instance.numJobs;
+            int n = instance.numTaskIds;
+            int[] predecessors = new int[n];
+            for (int id = 0; id < n; id++) {
+                int job = instance.jobOf(id);
+                int base = instance.machine(id) * numJobs * numJobs;
+                predecessors[id] = instance.taskOf(id) > 0 ? 1 : 0;
+                for (int other = 0; other < numJobs; other++) {
+                    if (node.precedes[base + other * numJobs + job]) {
+                        predecessors[id]++;
+                    }
+                }
+            }
+
+            // topological order (Kahn), the heads are computed along the way
+            int[] order = new int[n];
+            int size = 0;
+            for (int job = 0; job < numJobs; job++) {
+                int first = instance.taskId(job, 0);
+                if (predecessors[first] == 0) {
+                    order[size++] = first;
+                }
+            }
+            Arrays.fill(node.heads, 0);
+            for (int i = 0; i < size; i++) {
+                int id = order[i];
+                int job = instance.jobOf(id);
+                int end = node.heads[id] + durations[id];
+                if (instance.taskOf(id) + 1 < instance.numTasks) {
+                    int next = id + 1;
+                    node.heads[next] = Math.max(node.heads[next], end);
+                    if (--predecessors[next] == 0) {
+                        order[size++] = next;
+                    }
+                }
+                int machine = instance.machine(id);
+                int base = machine * numJobs * numJobs + job * numJobs;
+                for (int other = 0; other < numJobs; other++) {
+                    if (node.precedes[base + other]) {
+                        int next = onMachine[machine][other];
+                        node.heads[next] = Math.max(node.heads[next], end);
+                        if (--predecessors[next] == 0) {
+                            order[size++] = next;
+                        }
+                    }
+                }
+            }
+            if (size < n) {
+                return false;
+            }
+
+            // tails, in reverse topological order
+            for (int i = n - 1; i >= 0; i--) {
+                int id = order[i];
+                int job = instance.jobOf(id);
+                int tail = 0;
+                if (instance.taskOf(id) + 1 < instance.numTasks) {
+                    tail = node.tails[id + 1] + durations[id + 1];
+                }
+                int machine = instance.machine(id);
+                int base = machine * numJobs * numJobs + job * numJobs;
+                for (int other = 0; other < numJobs; other++) {
+                    if (node.precedes[base + other]) {
+                        int next = onMachine[machine][other];
+                        tail = Math.max(tail, node.tails[next] + durations[next]);
+                    }
+                }
+                node.tails[id] = tail;
+            }
+            return true;
+        }
+
+        /** Fixes the order of the pairs of tasks on a machine that can only be processed one way in a solution
+         * better than the incumbent: if processing j before i gives a path of at least the incumbent makespan
+         * (head of j, j, i, tail of i), then i must precede j.
+         *
+         * @return True if arcs were added (the heads and tails must then be computed again).
+         */
+        private boolean immediateSelection(Node node) {
+            int numJobs = instance.numJobs;
+            int upperBound = makespan;
+            boolean changed = false;
+            for (int machine = 0; machine < instance.numMachines; machine++) {
+                int base = machine * numJobs * numJobs;
+                for (int a = 0; a < numJobs; a++) {
+                    int i = onMachine[machine][a];
+                    for (int b = a + 1; b < numJobs; b++) {
+                        if (node.precedes[base + a * numJobs + b] || node.precedes[base + b * numJobs + a]) {
+                            continue;
+                        }
+                        int j = onMachine[machine][b];
+                        int length = durations[i] + durations[j];
+                        boolean jBeforeI = node.heads[j] + length + node.tails[i] < upperBound;
+                        boolean iBeforeJ = node.heads[i] + length + node.tails[j] < upperBound;
+                        if (iBeforeJ && !jBeforeI) {
+                            node.precedes[base + a * numJobs + b] = true;
+                            changed = true;
+                        } else if (jBeforeI && !iBeforeJ) {
+                            node.precedes[base + b * numJobs + a] = true;
+                            changed = true;
+                        } else if (!iBeforeJ) {
+                            // no order gives a better solution: a cycle makes the node infeasible
+                            node.precedes[base + a * numJobs + b] = true;
+                            node.precedes[base + b * numJobs + a] = true;
+                            return true;
+                        }
+                    }
+                }
+            }
+            return changed;
+        }
+
+        /** Builds a schedule that respects the arcs of the node with the Giffler-Thompson algorithm (among the
+         * tasks that may start before the earliest completion, the one with the largest tail is scheduled first),
+         * and offers it as incumbent.
+         *
+         * @return A critical path of the schedule, as task ids.
+         */
+        int[] solveHeuristically(Node node) {
+            int numJobs = instance.numJobs;
+            int n = instance.numTaskIds;
+            // number of machine predecessors of each task that are not scheduled yet
+            int[] waiting = new int[n];
+            for (int id = 0; id < n; id++) {
+                int job = instance.jobOf(id);
+                int base = instance.machine(id) * numJobs * numJobs;
+                for (int other = 0; other < numJobs; other++) {
+                    if (node.precedes[base + other * numJobs + job]) {
+                        waiting[id]++;
+                    }
+                }
+            }
+            int[] nextTask = new int[numJobs];
+            int[] jobReady = new int[numJobs];
+            int[] machineReady = new int[instance.numMachines];
+            int[] lastOnMachine = new int[instance.numMachines];
+            Arrays.fill(lastOnMachine, -1);
+            int[] start = new int[n];
+            int[] machinePredecessor = new int[n];
+
+            for (int scheduled = 0; scheduled < n; scheduled++) {
+                // earliest completion among the available tasks
+                int bestEnd = Integer.MAX_VALUE, bestMachine = -1;
+                for (int job = 0; job < numJobs; job++) {
+                    if (nextTask[job] == instance.numTasks) {
+                        continue;
+                    }
+                    int id = instance.taskId(job, nextTask[job]);
+                    if (waiting[id] == 0) {
+                        int machine = instance.machine(id);
+                        int end = Math.max(jobReady[job], machineReady[machine]) + durations[id];
+                        if (end < bestEnd) {
+                            bestEnd = end;
+                            bestMachine = machine;
+                        }
+                    }
+                }
+                // among the tasks of this machine that could start before, the one with the largest tail
+                int chosen = -1;
+                for (int job = 0; job < numJobs; job++) {
+                    if (nextTask[job] == instance.numTasks) {
+                        continue;
+                    }
+                    int id = instance.taskId(job, nextTask[job]);
+                    if (waiting[id] == 0 && instance.machine(id) == bestMachine
+                            && Math.max(jobReady[job], machineReady[bestMachine]) < bestEnd
+                            && (chosen == -1 || node.tails[id] > node.tails[chosen])) {
+                        chosen = id;
+                    }
+                }
+                if (chosen == -1) {
+                    // only zero-duration tasks can start at the earliest completion
+                    for (int job = 0; job < numJobs && chosen == -1; job++) {
+                        if (nextTask[job] < instance.numTasks) {
+                            int id = instance.taskId(job, nextTask[job]);
+                            if (waiting[id] == 0 && instance.machine(id) == bestMachine) {
+                                chosen = id;
+                            }
+                        }
+                    }
+                }
+
+                int job = instance.jobOf(chosen);
+                start[chosen] = Math.max(jobReady[job], machineReady[bestMachine]);
+                int end = start[chosen] + durations[chosen];
+                jobReady[job] = end;
+                machineReady[bestMachine] = end;
+                machinePredecessor[chosen] = lastOnMachine[bestMachine];
+                lastOnMachine[bestMachine] = chosen;
+                nextTask[job]++;
+                int base = bestMachine * numJobs * numJobs + job * numJobs;
+                for (int other = 0; other < numJobs; other++) {
+                    if (node.precedes[base + other]) {
+                        waiting[onMachine[bestMachine][other]]--;
+                    }
+                }
+            }
+
+            int last = 0;
+            for (int id = 0; id < n; id++) {
+                if (start[id] + durations[id] > start[last] + durations[last]) {
+                    last = id;
+                }
+            }
+            if (start[last] + durations[last] < makespan) {
+                Schedule schedule = new Schedule(instance);
+                for (int id = 0; id < n; id++) {
+                    schedule.setStartTime(id, start[id]);
+                }
+                offer(schedule);
+            }
+
+            // critical path, from the end, preferring the machine arcs to get the longest blocks
+            int[] path = new int[n];
+            int length = 0;
+            int id = last;
+            while (id != -1) {
+                path[length++] = id;
+                int previous = machinePredecessor[id];
+                if (previous == -1 || start[previous] + durations[previous] != start[id]) {
+                    boolean jobArc = instance.taskOf(id) > 0
+                            && start[id - 1] + durations[id - 1] == start[id];
+                    previous = jobArc ? id - 1 : -1;
+                }
+                id = previous;
+            }
+            int[] critical = new int[length];
+            for (int i = 0; i < length; i++) {
+                critical[i] = path[length - 1 - i];
+            }
+            return critical;
+        }
+
+        /** Children of a node, given a critical path of its heuristic solution.
+         *
+         * For each block B (consecutive tasks of the path on the same machine), a child moves a task of B (other
+         * than the first) before all others, or a task (other than the first and the last) after all others while
+         * the first stays first. The children of a block also keep the first and the last task of each previous
+         * block in place, so that no solution is in two children. The children that contain no solution better
+         * than the incumbent are discarded.
+         */
+        List<Node> branch(Node node, int[] path) {
+            int numJobs = instance.numJobs;
+            List<Node> children = new ArrayList<>();
+            // arcs that keep the previous blocks in place: {machine, before job, after job}
+            List<int[]> kept = new ArrayList<>();
+
+            int blockStart = 0;
+            while (blockStart < path.length) {
+                int machine = instance.machine(path[blockStart]);
+                int blockEnd = blockStart + 1;
+                while (blockEnd < path.length && instance.machine(path[blockEnd]) == machine) {
+                    blockEnd++;
+                }
+                int size = blockEnd - blockStart;
+                if (size >= 2) {
+                    int[] jobs = new int[size];
+                    for (int i = 0; i < size; i++) {
+                        jobs[i] = instance.jobOf(path[blockStart + i]);
+                    }
+                    // a task before all others
+                    for (int u = 1; u < size; u++) {
+                        Node child = node.child();
+                        boolean consistent = select(child, kept);
+                        for (int v = 0; v < size && consistent; v++) {
+                            if (v != u) {
+                                consistent = select(child, machine, jobs[u], jobs[v]);
+                            }
+                        }
+                        addIfPromising(children, child, consistent);
+                    }
+                    // a task after all others, the first one staying first
+                    for (int u = 1; u < size - 1; u++) {
+                        Node child = node.child();
+                        boolean consistent = select(child, kept);
+                        for (int v = 0; v < size && consistent; v++) {
+                            if (v != u) {
+                                consistent = select(child, machine, jobs[v], jobs[u]);
+                            }
+                            if (v != 0 && consistent) {
+                                consistent = select(child, machine, jobs[0], jobs[v]);
+                            }
+                        }
+                        addIfPromising(children, child, consistent);
+                    }
+                    // the next children keep the first and the last task of this block in place
+                    for (int v = 1; v < size; v++) {
+                        kept.add(new int[]{machine, jobs[0], jobs[v]});
+                    }
+                    for (int v = 0; v < size - 1; v++) {
+                        kept.add(new int[]{machine, jobs[v], jobs[size - 1]});
+                    }
+                }
+                blockStart = blockEnd;
+            }
+            return children;
+        }
+
+        private void addIfPromising(List<Node> children, Node child, boolean consistent) {
+            if (!consistent) {
+                statistics.infeasible.increment();
+            } else if (evaluate(child)) {
+                children.add(child);
+            }
+        }
+
+        /** Selects the arc (task of job <code>before</code> on the machine, task of job <code>after</code>).
+         *
+         * @return False if the opposite arc is already selected.
+         */
+        private boolean select(Node node, int machine, int before, int after) {
+            int numJobs = instance.numJobs;
+            int base = machine * numJobs * numJobs;
+            if (node.precedes[base + after * numJobs + before]) {
+                return false;
+            }
+            node.precedes[base + before * numJobs + after] = true;
+            return true;
+        }
+
+        private boolean select(Node node, List<int[]> arcs) {
+            for (int[] arc : arcs) {
+                if (!select(node, arc[0], arc[1], arc[2])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package jobshop.solvers;
+
+/** Tells a running solver when it must stop.
+ *
+ * A token is cancelled when its deadline is met or when <code>cancel()</code> is called, e.g. by another thread.
+ * Solvers check their token regularly (typically once per iteration) and return their best solution as soon as it
+ * is cancelled.
+ *
+ * A token can also have a target makespan, typically a lower bound of the instance: solvers <code>offer</code> the
+ * makespan of each new best solution to their token, which is cancelled as soon as the target is reached since no
+ * better solution can be found.
+ */
+public final class CancellationToken {
+
+    /** Absolute time (in milliseconds) at which the token is cancelled. */
+    final long deadline;
+
+    /** Makespan at or below which the search is over (0 if there is none). */
+    final int target;
+
+    /** True once <code>cancel()</code> has been called. */
+    private volatile boolean cancelled = false;
+
+    /** Creates a token that is cancelled at the given absolute time (in milliseconds). */
+    public CancellationToken(long deadline) {
+        this(deadline, 0);
+    }
+
+    /** Creates a token that is cancelled at the given absolute time (in milliseconds), or as soon as a solution with
+     * the target makespan is offered. */
+    public CancellationToken(long deadline, int target) {
+        this.deadline = deadline;
+        this.target = target;
+    }
+
+    /** Absolute time (in milliseconds) at which the token is cancelled. */
+    public long deadline() {
+        return deadline;
+    }
+
+    /** Makespan at or below which the token is cancelled (0 if there is none). */
+    public int target() {
+        return target;
+    }
+
+    /** Reports the makespan of a new best solution, which cancels the token if it reaches the target.
+     *
+     * @return True if the target is reached.
+     */
+    public boolean offer(int makespan) {
+        if (makespan <= target) {
+            cancel();
+            return true;
+        }
+        return false;
+    }
+
+    /** Cancels the token before its deadline. */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /** Returns true if the solver should stop. */
+    public boolean isCancelled() {
+        return cancelled || System.currentTimeMillis() >= deadline;
+    }
+}
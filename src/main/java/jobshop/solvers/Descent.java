@@ -0,0 +1,119 @@
+package jobshop.solvers;
+
+import jobshop.encodings.ResourceOrder;
+import jobshop.solvers.neighborhood.Move;
+import jobshop.solvers.neighborhood.Neighborhood;
+import jobshop.solvers.neighborhood.SwapEvaluator;
+
+import java.util.Arrays;
+import java.util.List;
+
+/** A descent in a neighborhood, that improves a solution in place until it is a local minimum.
+ *
+ * At each iteration, the neighbors are estimated by a SwapEvaluator without being built, and the descent moves to
+ * the improving neighbor with the best estimate: the neighbors are applied and decoded in the order of their
+ * estimates, until one improves the makespan. This is a steepest descent on the estimates, and not on the exact
+ * makespans as the original descent that decoded all neighbors: its results are not directly comparable.
+ * Neighbors whose estimate is a lower bound (swaps) that does not improve the makespan are never decoded. Other
+ * neighbors (insertions) whose estimate does not improve are only decoded up to <code>fallbackEvaluations</code>
+ * per iteration, since they very rarely improve: the descent may then stop at a local minimum of the estimates.
+ *
+ * It is the search performed by the DescentSolver, also used by other solvers (e.g. as the memetic step of the
+ * GeneticSolver). Its work is added to the statistics of the solver that uses it: the evaluated neighbors are counted
+ * as evaluations, and those found to contain a cycle when applied as infeasible.
+ */
+final class Descent {
+
+    /** Maximal number of neighbors whose estimate does not improve, but is not a lower bound, decoded in each
+     * iteration. */
+    static final int fallbackEvaluations = 4;
+
+    final Neighborhood neighborhood;
+    /** Statistics of the solver using the descent. */
+    final SolverStatistics statistics;
+    /** If true, each improving move is counted as an iteration of the solver. */
+    final boolean countIterations;
+    /** If true, the makespan of the current solution is reported to the statistics (and their trace). */
+    final boolean reportProgress;
+
+    /** Creates a new descent.
+     *
+     * @param neighborhood Neighborhood in which the moves are chosen.
+     * @param statistics Statistics of the solver using the descent, to which its work is added.
+     * @param countIterations If true, each improving move is counted as an iteration.
+     * @param reportProgress If true, the makespan of the current solution is reported after each improving move.
+     */
+    Descent(Neighborhood neighborhood, SolverStatistics statistics, boolean countIterations, boolean reportProgress) {
+        this.neighborhood = neighborhood;
+        this.statistics = statistics;
+        this.countIterations = countIterations;
+        this.reportProgress = reportProgress;
+    }
+
+    /** Improves the given solution in place until it is a local minimum of the neighborhood.
+     *
+     * @param solution_ro Solution to improve, it is modified by the descent.
+     * @param evaluator Evaluator to use for estimating the neighbors (not shared with other threads).
+     * @param token Token that interrupts the descent as soon as it is cancelled.
+     * @return The makespan of the solution at the end of the descent.
+     */
+    int run(ResourceOrder solution_ro, SwapEvaluator evaluator, CancellationToken token) {
+        evaluator.reset(solution_ro);
+        progress(evaluator.makespan());
+
+        boolean ameliorant = true;
+        while (ameliorant && !token.isCancelled()) {
+            ameliorant = false;
+            int makespan = evaluator.makespan();
+            int fallbacks = 0;
+
+            // estimate all neighbors and try them from the most promising one
+            List<Move> moves = neighborhood.allMoves(solution_ro, evaluator.criticalPath());
+            // sort keys: estimate in the high bits, index of the move in the low bits
+            long[] candidates = new long[moves.size()];
+            for (int s = 0; s < candidates.length; s++) {
+                candidates[s] = ((long) evaluator.estimate(moves.get(s)) << 32) | s;
+            }
+            Arrays.sort(candidates);
+            statistics.evaluations.add(moves.size());
+
+            for (long key : candidates) {
+                int estimate = (int) (key >>> 32);
+                Move move = moves.get((int) key);
+                // a move rejected by the evaluator, or whose estimate is a lower bound that does not improve, cannot
+                // improve (the other moves, e.g. insertions, are evaluated exactly within a budget)
+                if (estimate == Integer.MAX_VALUE) {
+                    break;
+                }
+                if (estimate >= makespan && (move.estimateIsLowerBound() || fallbacks++ >= fallbackEvaluations)) {
+                    continue;
+                }
+                move.applyOn(solution_ro);
+                statistics.evaluations.increment();
+                if (!evaluator.reset(solution_ro)) {
+                    statistics.infeasible.increment();
+                } else if (evaluator.makespan() < makespan) {
+                    if (countIterations) {
+                        statistics.iterations.increment();
+                    }
+                    progress(evaluator.makespan());
+                    ameliorant = true;
+                    break;
+                }
+                // not improving, undo the move
+                move.undoApplyOn(solution_ro);
+            }
+            if (!ameliorant) {
+                // restore the cached state of the current solution
+                evaluator.reset(solution_ro);
+            }
+        }
+        return evaluator.makespan();
+    }
+
+    private void progress(int makespan) {
+        if (reportProgress) {
+            statistics.progress(statistics.iterations(), makespan);
+        }
+    }
+}
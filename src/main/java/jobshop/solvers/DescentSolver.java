@@ -5,16 +5,25 @@ import jobshop.encodings.ResourceOrder;
 import jobshop.encodings.Schedule;
 import jobshop.encodings.Task;
 import jobshop.solvers.neighborhood.Neighborhood;
-import jobshop.solvers.neighborhood.Nowicki;
+import jobshop.solvers.neighborhood.SwapEvaluator;
 
-import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
-/** An empty shell to implement a descent solver. */
+/** A multistart descent solver: descents (see <code>Descent</code>) from several solutions of the base solver.
+ *
+ * Each descent moves to the improving neighbor with the best estimate, and only decodes the neighbors it tries in
+ * the order of their estimates: it is a steepest descent on the estimates rather than on the exact makespans.
+ */
 public class DescentSolver implements Solver {
 
     final Neighborhood neighborhood;
     final Solver baseSolver;
+    /** Work done during the last run: an iteration is an improving move. Neighbors found to contain a cycle
+     * when applied are counted as infeasible. */
+    final SolverStatistics statistics = new SolverStatistics();
+    /** Descent performed from each initial solution. */
+    final Descent descent;
 
     /** Creates a new descent solver with a given neighborhood and a solver for the initial solution.
      *
@@ -22,48 +31,66 @@ public class DescentSolver implements Solver {
      * @param baseSolver A solver to provide the initial solution.
      */
     public DescentSolver(Neighborhood neighborhood, Solver baseSolver) {
+        this(neighborhood, baseSolver, true);
+    }
+
+    /** Creates a new descent solver.
+     *
+     * @param reportProgress If true, the makespan of the current solution of the descents is reported to the
+     *                       statistics.
+     */
+    DescentSolver(Neighborhood neighborhood, Solver baseSolver, boolean reportProgress) {
         this.neighborhood = neighborhood;
         this.baseSolver = baseSolver;
+        this.descent = new Descent(neighborhood, statistics, true, reportProgress);
+    }
+
+    @Override
+    public Solver withSeed(long seed) {
+        return new DescentSolver(neighborhood, baseSolver.withSeed(seed));
     }
 
     @Override
     public Optional<Schedule> solve(Instance instance, long deadline) {
+        // stops early if a solution reaches the lower bound of the instance
+        return solve(instance, new CancellationToken(deadline, instance.lowerBound()), s -> {});
+    }
+
+    @Override
+    public Optional<Schedule> solve(Instance instance, CancellationToken token, Consumer<Schedule> improvements) {
+        statistics.reset();
 
         int multistart = 5; //Choix arbitraire
-        Optional<Schedule> multistart_best_sol = null;
+        Optional<Schedule> multistart_best_sol = Optional.empty();
         int multistart_best_makespan = -1;
 
-        for (int i = 0; i < multistart; i++) {
-
-            long starting_time = System.currentTimeMillis();
-
-            Optional<Schedule> best_sol = baseSolver.solve(instance, deadline);
-
-            ResourceOrder solution_ro = new ResourceOrder(best_sol.get());
-            List<ResourceOrder> neighbors = neighborhood.generateNeighbors(solution_ro);
-
-            boolean ameliorant = true;
-            while (ameliorant && ((System.currentTimeMillis() - starting_time) < deadline)) {
-                ameliorant = false;
-                int makespan = best_sol.get().makespan();
-                for (ResourceOrder ro : neighbors) {
-                    Optional<Schedule> candidate = ro.toSchedule();
-                    if (candidate.isPresent() && candidate.get().isValid() && candidate.get().makespan() < makespan) {
-                        makespan = candidate.get().makespan();
-                        best_sol = candidate;
-                        ameliorant = true;
-                    }
-                }
-                solution_ro = new ResourceOrder(best_sol.get());
-                neighbors = neighborhood.generateNeighbors(solution_ro);
+        SwapEvaluator evaluator = new SwapEvaluator(instance);
+
+        for (int i = 0; i < multistart && !token.isCancelled(); i++) {
+
+            Optional<Schedule> initial_sol = baseSolver.solve(instance, token, s -> {});
+            if (initial_sol.isEmpty()) {
+                break;
             }
 
+            // the current solution is modified in place: neighbors are only evaluated, not built
+            ResourceOrder solution_ro = new ResourceOrder(initial_sol.get());
+            // even if cancelled, the descent leaves a valid solution that may be the best one
+            descent.run(solution_ro, evaluator, token);
+
+            Optional<Schedule> best_sol = solution_ro.toSchedule();
             if (best_sol.get().makespan() < multistart_best_makespan || multistart_best_makespan == -1) {
                 multistart_best_makespan = best_sol.get().makespan();
                 multistart_best_sol = best_sol;
+                improvements.accept(best_sol.get());
+                token.offer(multistart_best_makespan);
             }
         }
         return multistart_best_sol;
     }
 
+    @Override
+    public SolverStatistics statistics() {
+        return statistics;
+    }
 }
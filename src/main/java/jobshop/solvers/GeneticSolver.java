@@ -0,0 +1,284 @@
+package jobshop.solvers;
+
+import jobshop.Instance;
+import jobshop.encodings.JobNumbers;
+import jobshop.encodings.ResourceOrder;
+import jobshop.encodings.Schedule;
+import jobshop.solvers.neighborhood.Neighborhood;
+import jobshop.solvers.neighborhood.SwapEvaluator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/** A genetic algorithm on the JobNumbers encoding, optionally memetic (each generation, the best child is improved
+ * by a descent).
+ *
+ * The population and the children are kept in two preallocated arrays of job sequences that are swapped at each
+ * generation. The children are produced by binary tournaments, a job-order crossover (JOX: the jobs of a random
+ * subset keep their positions of the first parent, the others are taken in the order of the second parent) and a
+ * swap mutation, which all work in place: no memory is allocated per child.
+ *
+ * The children are produced and evaluated in parallel, by workers that each handle a fixed part of the population
+ * with their own random generator. These generators are split from the generator of the solver at each
+ * generation, so that seeded runs do not depend on the scheduling of the workers.
+ */
+public class GeneticSolver implements Solver {
+
+    /** Probability of a swap mutation on a child. */
+    static final double mutationRate = 0.3;
+
+    /** Solver providing the first individual of the initial population, the others are random. */
+    final Solver baseSolver;
+    /** Neighborhood of the descent applied on the best child of each generation, null for a plain genetic
+     * algorithm. */
+    final Neighborhood neighborhood;
+    /** Number of individuals of the population. */
+    final int populationSize;
+    /** Number of workers producing the children in parallel. */
+    final int threads;
+    /** Generator of all random choices of the solver. */
+    final SplittableRandom seeds;
+    /** Work done during the last run: an iteration is a generation, an evaluation is a child or a neighbor evaluated
+     * by the memetic descent. */
+    final SolverStatistics statistics = new SolverStatistics();
+
+    /** Creates a new genetic solver.
+     *
+     * @param baseSolver A solver to provide the first individual of the initial population.
+     * @param neighborhood Neighborhood of the descent applied on the best child of each generation, or null for
+     *                     a plain genetic algorithm.
+     * @param populationSize Number of individuals of the population (at least 2).
+     * @param threads Number of workers producing the children in parallel.
+     */
+    public GeneticSolver(Solver baseSolver, Neighborhood neighborhood, int populationSize, int threads) {
+        this(baseSolver, neighborhood, populationSize, threads, new SplittableRandom());
+    }
+
+    private GeneticSolver(Solver baseSolver, Neighborhood neighborhood, int populationSize, int threads,
+                          SplittableRandom seeds) {
+        if (populationSize < 2) {
+            throw new IllegalArgumentException("The population must contain at least 2 individuals");
+        }
+        this.baseSolver = baseSolver;
+        this.neighborhood = neighborhood;
+        this.populationSize = populationSize;
+        this.threads = threads;
+        this.seeds = seeds;
+    }
+
+    @Override
+    public Solver withSeed(long seed) {
+        return new GeneticSolver(baseSolver, neighborhood, populationSize, threads, new SplittableRandom(seed));
+    }
+
+    @Override
+    public SolverStatistics statistics() {
+        return statistics;
+    }
+
+    @Override
+    public Optional<Schedule> solve(Instance instance, long deadline) {
+        // stops early if a solution reaches the lower bound of the instance
+        return solve(instance, new CancellationToken(deadline, instance.lowerBound()), s -> {});
+    }
+
+    /** Produces and evaluates the children of a fixed range of the population. */
+    private final class Worker implements Callable<Void> {
+        final Instance instance;
+        final int from, to;
+        /** Jobs of the random subset of the crossover. */
+        final boolean[] inSubset;
+        /** Buffer of the decoder. */
+        final int[] buffer;
+        /** Generator of the current generation, set before each generation. */
+        SplittableRandom random;
+        /** Parents and children of the current generation, set before each generation. */
+        int[][] parents, children;
+        int[] parentFitness, childFitness;
+
+        Worker(Instance instance, int from, int to) {
+            this.instance = instance;
+            this.from = from;
+            this.to = to;
+            this.inSubset = new boolean[instance.numJobs];
+            this.buffer = new int[JobNumbers.bufferSize(instance)];
+        }
+
+        @Override
+        public Void call() {
+            for (int i = from; i < to; i++) {
+                int[] child = children[i];
+                crossover(parents[tournament()], parents[tournament()], child);
+                if (random.nextDouble() < mutationRate) {
+                    int a = random.nextInt(child.length);
+                    int b = random.nextInt(child.length);
+                    int tmp = child[a];
+                    child[a] = child[b];
+                    child[b] = tmp;
+                }
+                childFitness[i] = JobNumbers.makespan(instance, child, buffer);
+            }
+            return null;
+        }
+
+        /** Index of the best of two random parents. */
+        private int tournament() {
+            int a = random.nextInt(parents.length);
+            int b = random.nextInt(parents.length);
+            return parentFitness[a] <= parentFitness[b] ? a : b;
+        }
+
+        /** Job-order crossover, writes the child in place. */
+        private void crossover(int[] first, int[] second, int[] child) {
+            for (int j = 0; j < inSubset.length; j++) {
+                inSubset[j] = random.nextBoolean();
+            }
+            // both parents contain the same number of tasks of the jobs out of the subset
+            int next = 0;
+            for (int pos = 0; pos < child.length; pos++) {
+                if (inSubset[first[pos]]) {
+                    child[pos] = first[pos];
+                } else {
+                    while (inSubset[second[next]]) {
+                        next++;
+                    }
+                    child[pos] = second[next++];
+                }
+            }
+        }
+    }
+
+    @Override
+    public Optional<Schedule> solve(Instance instance, CancellationToken token, Consumer<Schedule> improvements) {
+        statistics.reset();
+        SplittableRandom random = seeds.split();
+
+        Optional<Schedule> initial = baseSolver.withSeed(random.nextLong()).solve(instance, token, s -> {});
+        if (initial.isEmpty()) {
+            return Optional.empty();
+        }
+
+        final int n = instance.numTaskIds;
+        int[][] population = new int[populationSize][];
+        int[][] children = new int[populationSize][n];
+        int[] fitness = new int[populationSize];
+        int[] childFitness = new int[populationSize];
+        int[] buffer = new int[JobNumbers.bufferSize(instance)];
+
+        // initial population: the solution of the base solver and random sequences
+        population[0] = JobNumbers.fromSchedule(initial.get()).jobs;
+        for (int i = 1; i < populationSize; i++) {
+            int[] jobs = new int[n];
+            for (int t = 0; t < n; t++) {
+                jobs[t] = instance.jobOf(t);
+            }
+            for (int t = n - 1; t > 0; t--) {
+                int r = random.nextInt(t + 1);
+                int tmp = jobs[t];
+                jobs[t] = jobs[r];
+                jobs[r] = tmp;
+            }
+            population[i] = jobs;
+        }
+        for (int i = 0; i < populationSize; i++) {
+            fitness[i] = JobNumbers.makespan(instance, population[i], buffer);
+        }
+
+        int[] best = population[0].clone();
+        int bestMakespan = fitness[0];
+        improvements.accept(new JobNumbers(instance, best).toSchedule().get());
+        token.offer(bestMakespan);
+
+        // the first child is the best parent (elitism), the others are shared among the workers
+        int numWorkers = Math.max(1, Math.min(threads, populationSize - 1));
+        List<Worker> workers = new ArrayList<>(numWorkers);
+        for (int w = 0; w < numWorkers; w++) {
+            workers.add(new Worker(instance,
+                    1 + w * (populationSize - 1) / numWorkers, 1 + (w + 1) * (populationSize - 1) / numWorkers));
+        }
+        ExecutorService pool = numWorkers > 1 ? Executors.newFixedThreadPool(numWorkers) : null;
+        // the work of the descents is counted in the evaluations of the solver, its iterations are the generations
+        Descent descent = neighborhood == null ? null : new Descent(neighborhood, statistics, false, false);
+        SwapEvaluator evaluator = neighborhood == null ? null : new SwapEvaluator(instance);
+
+        try {
+            while (!token.isCancelled()) {
+                int elite = 0;
+                for (int i = 1; i < populationSize; i++) {
+                    if (fitness[i] < fitness[elite]) {
+                        elite = i;
+                    }
+                }
+                System.arraycopy(population[elite], 0, children[0], 0, n);
+                childFitness[0] = fitness[elite];
+
+                for (Worker worker : workers) {
+                    // split in order, before the workers start
+                    worker.random = random.split();
+                    worker.parents = population;
+                    worker.children = children;
+                    worker.parentFitness = fitness;
+                    worker.childFitness = childFitness;
+                }
+                if (pool == null) {
+                    workers.get(0).call();
+                } else {
+                    for (var future : pool.invokeAll(workers)) {
+                        future.get();
+                    }
+                }
+                statistics.evaluations.add(populationSize - 1);
+
+                // memetic step: improve the best new child with a descent
+                int bestChild = 1;
+                for (int i = 2; i < populationSize; i++) {
+                    if (childFitness[i] < childFitness[bestChild]) {
+                        bestChild = i;
+                    }
+                }
+                if (descent != null && !token.isCancelled()) {
+                    ResourceOrder order = new ResourceOrder(
+                            new JobNumbers(instance, children[bestChild]).toSchedule().get());
+                    descent.run(order, evaluator, token);
+                    int[] improved = JobNumbers.fromSchedule(order.toSchedule().get()).jobs;
+                    System.arraycopy(improved, 0, children[bestChild], 0, n);
+                    childFitness[bestChild] = JobNumbers.makespan(instance, children[bestChild], buffer);
+                }
+
+                // the children replace their parents
+                int[][] tmpGenes = population;
+                population = children;
+                children = tmpGenes;
+                int[] tmpFitness = fitness;
+                fitness = childFitness;
+                childFitness = tmpFitness;
+
+                statistics.iterations.increment();
+                statistics.progress(statistics.iterations(), fitness[bestChild]);
+                if (fitness[bestChild] < bestMakespan) {
+                    bestMakespan = fitness[bestChild];
+                    System.arraycopy(population[bestChild], 0, best, 0, n);
+                    improvements.accept(new JobNumbers(instance, best).toSchedule().get());
+                    token.offer(bestMakespan);
+                }
+            }
+        } catch (InterruptedException e) {
+            token.cancel();
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } finally {
+            if (pool != null) {
+                pool.shutdownNow();
+            }
+        }
+        return new JobNumbers(instance, best).toSchedule();
+    }
+}
@@ -7,6 +7,8 @@ import jobshop.encodings.Task;
 
 import java.util.ArrayList;
 import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
 
 /** An empty shell to implement a greedy solver. */
 public class GreedySolver implements Solver {
@@ -18,27 +20,66 @@ public class GreedySolver implements Solver {
 
     /** Priority that the solver should use. */
     final Priority priority;
+    /** Probability of choosing the task according to the priority, instead of a random one. */
     final double random;
 
+    /** Generator from which each run splits its own generator, so that runs in different threads do not
+     * contend on a shared generator. */
+    private final SplittableRandom generators;
+
     /** Creates a new greedy solver that will use the given priority. */
     public GreedySolver(Priority p) {
-        this.priority = p;
-        this.random = 1;
+        this(p, 1);
     }
+
+    /** Creates a new randomized greedy solver, with a random seed.
+     *
+     * @param random Probability of choosing the task according to the priority. Otherwise, a random task is chosen.
+     */
     public GreedySolver(Priority p, double random) {
+        this(p, random, new SplittableRandom());
+    }
+
+    /** Creates a new randomized greedy solver, whose runs are determined by the given seed.
+     *
+     * @param random Probability of choosing the task according to the priority. Otherwise, a random task is chosen.
+     */
+    public GreedySolver(Priority p, double random, long seed) {
+        this(p, random, new SplittableRandom(seed));
+    }
+
+    private GreedySolver(Priority p, double random, SplittableRandom generators) {
         this.priority = p;
         if (random<1 && random>0){
             this.random = random;
         } else {
             this.random =1;
         }
+        this.generators = generators;
+    }
+
+    @Override
+    public Solver withSeed(long seed) {
+        return random < 1 ? new GreedySolver(priority, random, seed) : this;
+    }
+
+    /** A new generator for a run, split from the generator of the solver. */
+    private SplittableRandom nextGenerator() {
+        synchronized (generators) {
+            return generators.split();
+        }
     }
 
     @Override
     public Optional<Schedule> solve(Instance instance, long deadline) {
+        return solve(instance, new CancellationToken(deadline), s -> {});
+    }
+
+    @Override
+    public Optional<Schedule> solve(Instance instance, CancellationToken token, Consumer<Schedule> improvements) {
         // Init
-        long starting_time = System.currentTimeMillis();
         ResourceOrder sol = new ResourceOrder(instance);
+        SplittableRandom generator = random < 1 ? nextGenerator() : null;
 
         // Possible tasks array
         ArrayList<Task> possible_tasks = new ArrayList<>();
@@ -49,10 +90,7 @@ public class GreedySolver implements Solver {
         // Remaining processing time array
         int[] remaining_times = new int[instance.numJobs];
         for (int i = 0; i<instance.numJobs; i++) {
-            remaining_times[i] = 0;
-            for(int j=0; j<(instance.numTasks); j++){
-                remaining_times[i] += instance.duration(i, j);
-            }
+            remaining_times[i] = instance.jobDuration(i);
         }
 
         // Possible task starting time array
@@ -68,11 +106,15 @@ public class GreedySolver implements Solver {
         }
 
         // Treatment
-        while(!possible_tasks.isEmpty()&&((System.currentTimeMillis()-starting_time)<deadline)){
+        while(!possible_tasks.isEmpty()){
+            if (token.isCancelled()) {
+                // stopped before all tasks are scheduled: no solution
+                return Optional.empty();
+            }
             // choose the next task depending on the chosen priority
             Task next_task = null;
             int best;
-            if(Math.random()<random){
+            if(random == 1 || generator.nextDouble()<random){
                 switch (this.priority) {
                     case EST_SPT:
                         ArrayList<Task> best_tasks = new ArrayList<>();
@@ -149,7 +191,7 @@ public class GreedySolver implements Solver {
                 }
             }
             else {
-                next_task = possible_tasks.get((int) Math.floor(Math.random()*possible_tasks.size()));
+                next_task = possible_tasks.get(generator.nextInt(possible_tasks.size()));
             }
             // add it to the solution
             sol.addTaskToMachine(instance.machine(next_task.job, next_task.task), next_task);
@@ -171,6 +213,8 @@ public class GreedySolver implements Solver {
         //System.out.println("GANTT: " + sol.toSchedule().get().toString());
 
         // End
-        return sol.toSchedule();
+        Optional<Schedule> result = sol.toSchedule();
+        result.ifPresent(improvements);
+        return result;
     }
 }
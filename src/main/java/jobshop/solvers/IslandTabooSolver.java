@@ -0,0 +1,224 @@
+package jobshop.solvers;
+
+import jobshop.Instance;
+import jobshop.encodings.ResourceOrder;
+import jobshop.encodings.Schedule;
+import jobshop.solvers.neighborhood.Neighborhood;
+
+import java.util.Optional;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/** An island model of taboo searches running in parallel.
+ *
+ * Each island is a taboo search with its own initial solution (from a randomized base solver) and its own tenure.
+ * Every <code>migrationInterval</code> iterations, an island publishes its best solution on a board shared by all
+ * islands, and restarts from the best solution of the board if it is better than its own. The board is only
+ * updated with compare-and-set operations, so that the islands never wait for each other.
+ *
+ * An island whose search is blocked (all moves taboo) restarts from the best solution of the board, with an empty
+ * taboo list. If this solution is its own, the island would replay the same trajectory: it restarts with a tenure
+ * drawn at random for each move instead.
+ *
+ * The islands only report their progress to the statistics at the exchanges with the board, so that they do not
+ * contend on the statistics at each iteration.
+ */
+public class IslandTabooSolver implements Solver {
+
+    final Neighborhood neighborhood;
+    /** Randomized solver providing the initial solution of each island. */
+    final Solver baseSolver;
+    /** Number of islands, each running in its own thread. */
+    final int islands;
+    /** Number of iterations of an island between two exchanges with the board. */
+    final int migrationInterval;
+    /** Bounds of the tenures of the islands: the tenures are spread evenly over this range. */
+    final int minTenure, maxTenure;
+    /** Generator of the seeds of the islands. */
+    final SplittableRandom seeds;
+    /** Work done by all islands during the last run. */
+    final SolverStatistics statistics = new SolverStatistics();
+    /** Number of restarts of an island from a better solution of another island during the last run. */
+    final LongAdder migrations = new LongAdder();
+
+    /** Creates a new island model.
+     *
+     * @param neighborhood Neighborhood in which the moves of the taboo searches are chosen.
+     * @param baseSolver A randomized solver to provide the initial solution of each island.
+     * @param islands Number of islands, each of them runs in its own thread.
+     * @param migrationInterval Number of iterations of an island between two exchanges with the other islands.
+     * @param minTenure Tenure of the first island.
+     * @param maxTenure Tenure of the last island.
+     */
+    public IslandTabooSolver(Neighborhood neighborhood, Solver baseSolver, int islands, int migrationInterval,
+                             int minTenure, int maxTenure) {
+        this(neighborhood, baseSolver, islands, migrationInterval, minTenure, maxTenure, new SplittableRandom());
+    }
+
+    private IslandTabooSolver(Neighborhood neighborhood, Solver baseSolver, int islands, int migrationInterval,
+                              int minTenure, int maxTenure, SplittableRandom seeds) {
+        this.neighborhood = neighborhood;
+        this.baseSolver = baseSolver;
+        this.islands = islands;
+        this.migrationInterval = migrationInterval;
+        this.minTenure = minTenure;
+        this.maxTenure = maxTenure;
+        this.seeds = seeds;
+    }
+
+    @Override
+    public Solver withSeed(long seed) {
+        return new IslandTabooSolver(neighborhood, baseSolver, islands, migrationInterval, minTenure, maxTenure,
+                new SplittableRandom(seed));
+    }
+
+    @Override
+    public SolverStatistics statistics() {
+        return statistics;
+    }
+
+    /** A solution published on the board. It is never modified. */
+    static final class Elite {
+        final ResourceOrder order;
+        final int makespan;
+
+        Elite(ResourceOrder order, int makespan) {
+            this.order = order;
+            this.makespan = makespan;
+        }
+    }
+
+    /** Best solution of all islands, updated without locks. */
+    static final class Board {
+        final AtomicReference<Elite> best = new AtomicReference<>();
+
+        /** Publishes the solution if it is better than the best one of the board.
+         *
+         * @param order Solution to publish, it is copied if published.
+         * @return True if the solution is now the best one of the board.
+         */
+        boolean offer(ResourceOrder order, int makespan) {
+            Elite current = best.get();
+            if (current != null && current.makespan <= makespan) {
+                return false;
+            }
+            Elite candidate = new Elite(order.copy(), makespan);
+            while (current == null || makespan < current.makespan) {
+                if (best.compareAndSet(current, candidate)) {
+                    return true;
+                }
+                current = best.get();
+            }
+            return false;
+        }
+
+        /** Best solution of the board, null if none was published. */
+        Elite get() {
+            return best.get();
+        }
+    }
+
+    @Override
+    public Optional<Schedule> solve(Instance instance, long deadline) {
+        // stops early if a solution reaches the lower bound of the instance
+        return solve(instance, new CancellationToken(deadline, instance.lowerBound()), s -> {});
+    }
+
+    @Override
+    public Optional<Schedule> solve(Instance instance, CancellationToken token, Consumer<Schedule> improvements) {
+        statistics.reset();
+        migrations.reset();
+        Board board = new Board();
+        // makespan of the last solution given to the callback, guarded by the lock of the callback
+        int[] published = {Integer.MAX_VALUE};
+
+        ExecutorService pool = Executors.newFixedThreadPool(islands);
+        for (int i = 0; i < islands; i++) {
+            int tenure = islands == 1 ? minTenure : minTenure + i * (maxTenure - minTenure) / (islands - 1);
+            // the seeds are drawn here, in order, and not by the islands
+            Solver base = baseSolver.withSeed(seeds.nextLong());
+            Random random = new Random(seeds.nextLong());
+            pool.execute(() -> runIsland(instance, base, tenure, random, board, token, () -> {
+                synchronized (published) {
+                    Elite elite = board.get();
+                    if (elite.makespan < published[0]) {
+                        published[0] = elite.makespan;
+                        improvements.accept(elite.order.toSchedule().get());
+                        token.offer(elite.makespan);
+                    }
+                }
+            }));
+        }
+        pool.shutdown();
+        try {
+            // the islands stop by themselves when the token is cancelled
+            pool.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            token.cancel();
+            pool.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+
+        Elite best = board.get();
+        return best == null ? Optional.empty() : best.order.toSchedule();
+    }
+
+    /** Runs the taboo search of an island until the token is cancelled.
+     *
+     * @param onImprovement Called when the island improves the best solution of the board.
+     */
+    private void runIsland(Instance instance, Solver base, int tenure, Random random, Board board,
+                           CancellationToken token, Runnable onImprovement) {
+        Optional<Schedule> initial = base.solve(instance, token, s -> {});
+        if (initial.isEmpty()) {
+            return;
+        }
+        TabooSearch search = new TabooSearch(neighborhood, new ResourceOrder(initial.get()), tenure, tenure,
+                random, null);
+        if (board.offer(search.best(), search.bestMakespan())) {
+            onImprovement.run();
+        }
+
+        while (!token.isCancelled()) {
+            boolean blocked = !search.step();
+            if (blocked && search.iteration() == 0) {
+                // even without taboo moves there is no admissible neighbor: nothing left to explore
+                break;
+            }
+
+            if (blocked || search.iteration() % migrationInterval == 0) {
+                statistics.progress(statistics.iterations() + search.iteration(), search.currentMakespan());
+                // exchange with the board
+                if (board.offer(search.best(), search.bestMakespan())) {
+                    onImprovement.run();
+                }
+                Elite elite = board.get();
+                if (elite.makespan < search.bestMakespan()) {
+                    // restart from the best solution of another island
+                    migrations.increment();
+                    record(search);
+                    search = new TabooSearch(neighborhood, elite.order, tenure, tenure, random, null);
+                } else if (blocked) {
+                    // the best solution is this island's own: perturb the restart with random tenures
+                    record(search);
+                    search = new TabooSearch(neighborhood, elite.order, minTenure, maxTenure, random, null);
+                }
+            }
+        }
+        record(search);
+    }
+
+    /** Adds the work of a search to the statistics of the solver. */
+    private void record(TabooSearch search) {
+        statistics.iterations.add(search.iteration());
+        statistics.evaluations.add(search.evaluations());
+        statistics.infeasible.add(search.infeasible());
+        statistics.taboo.add(search.tabooRejected());
+    }
+}
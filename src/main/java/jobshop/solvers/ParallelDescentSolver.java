@@ -0,0 +1,126 @@
+package jobshop.solvers;
+
+import jobshop.Instance;
+import jobshop.encodings.ResourceOrder;
+import jobshop.encodings.Schedule;
+import jobshop.solvers.neighborhood.Neighborhood;
+import jobshop.solvers.neighborhood.SwapEvaluator;
+
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/** A multistart descent solver that runs its descents in parallel.
+ *
+ * Each descent starts from a solution of the base solver, that should be randomized to diversify the starting
+ * points. The descents are distributed over a pool of workers that share the best solution found so far.
+ * When the token is cancelled, the running descents stop, the remaining ones are skipped and the best solution
+ * is returned.
+ */
+public class ParallelDescentSolver extends DescentSolver {
+
+    /** Number of independent descents to run. */
+    final int multistart;
+
+    /** Number of workers running the descents. */
+    final int threads;
+
+    /** Generator of the seeds of the descents. */
+    final SplittableRandom seeds;
+
+    /** Creates a new parallel descent solver.
+     *
+     * @param neighborhood Neighborhood object that should be used to generates neighbor solutions to the current candidate.
+     * @param baseSolver A (randomized) solver to provide the initial solution of each descent.
+     * @param multistart Number of independent descents to run.
+     * @param threads Number of workers running the descents in parallel.
+     */
+    public ParallelDescentSolver(Neighborhood neighborhood, Solver baseSolver, int multistart, int threads) {
+        this(neighborhood, baseSolver, multistart, threads, new SplittableRandom());
+    }
+
+    private ParallelDescentSolver(Neighborhood neighborhood, Solver baseSolver, int multistart, int threads,
+                                  SplittableRandom seeds) {
+        // the concurrent descents are unrelated: only the incumbent is reported (see Incumbent.offer), so that the
+        // trace shows the convergence of the solver
+        super(neighborhood, baseSolver, false);
+        this.multistart = multistart;
+        this.threads = threads;
+        this.seeds = seeds;
+    }
+
+    /** Returns a solver whose i-th descent starts from the base solver seeded with the i-th seed drawn from the
+     * given seed, whatever the worker that runs it. */
+    @Override
+    public Solver withSeed(long seed) {
+        return new ParallelDescentSolver(neighborhood, baseSolver, multistart, threads, new SplittableRandom(seed));
+    }
+
+    /** Best solution found so far, shared by all workers. */
+    private class Incumbent {
+        Schedule schedule = null;
+        int makespan = Integer.MAX_VALUE;
+        final Consumer<Schedule> improvements;
+        /** Token that is cancelled when the incumbent reaches its target. */
+        final CancellationToken token;
+
+        Incumbent(Consumer<Schedule> improvements, CancellationToken token) {
+            this.improvements = improvements;
+            this.token = token;
+        }
+
+        /** Replaces the incumbent if the given solution is better. */
+        synchronized void offer(ResourceOrder candidate, int candidateMakespan) {
+            if (candidateMakespan < makespan) {
+                schedule = candidate.toSchedule().get();
+                makespan = candidateMakespan;
+                improvements.accept(schedule);
+                token.offer(makespan);
+                statistics.progress(statistics.iterations(), makespan);
+            }
+        }
+    }
+
+    @Override
+    public Optional<Schedule> solve(Instance instance, CancellationToken token, Consumer<Schedule> improvements) {
+        statistics.reset();
+        Incumbent best = new Incumbent(improvements, token);
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        // each worker uses its own evaluator
+        ThreadLocal<SwapEvaluator> evaluators = ThreadLocal.withInitial(() -> new SwapEvaluator(instance));
+        for (int i = 0; i < multistart; i++) {
+            // the seed of each descent is drawn here, in order, and not by the worker
+            Solver base = baseSolver.withSeed(seeds.nextLong());
+            pool.execute(() -> {
+                if (token.isCancelled()) {
+                    return;
+                }
+                Optional<Schedule> initial = base.solve(instance, token, s -> {});
+                if (initial.isEmpty()) {
+                    return;
+                }
+                ResourceOrder solution = new ResourceOrder(initial.get());
+                // even if interrupted, the descent leaves a valid solution that may be the best one
+                int makespan = descent.run(solution, evaluators.get(), token);
+                best.offer(solution, makespan);
+            });
+        }
+        pool.shutdown();
+
+        try {
+            // the descents stop by themselves when the token is cancelled, and then publish their solution
+            pool.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            token.cancel();
+            pool.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+
+        synchronized (best) {
+            return Optional.ofNullable(best.schedule);
+        }
+    }
+}
@@ -2,13 +2,25 @@ package jobshop.solvers;
 
 import jobshop.Instance;
 import jobshop.encodings.Schedule;
+import jobshop.solvers.neighborhood.BlockInsertions;
+import jobshop.solvers.neighborhood.CriticalSwaps;
 import jobshop.solvers.neighborhood.Nowicki;
 
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /** Common interface that must implemented by all solvers. */
 public interface Solver {
     final static int tabooTimer = 10;
+    /** Tenure range of the taboo solvers with a dynamic tenure. */
+    final static int tabooMinTenure = 8;
+    final static int tabooMaxTenure = 14;
+    /** Number of iterations of an island between two exchanges with the other islands. */
+    final static int islandMigrationInterval = 100;
+    /** Maximal time (in milliseconds) given to the taboo search that seeds the branch and bound. */
+    final static long branchAndBoundSeedTime = 1000;
+    /** Number of individuals of the population of the genetic solvers. */
+    final static int geneticPopulation = 100;
     /** Look for a solution until blocked or a deadline has been met.
      *
      * @param instance Jobshop instance that should be solved.
@@ -18,8 +30,46 @@ public interface Solver {
      */
     Optional<Schedule> solve(Instance instance, long deadline);
 
+    /** Look for a solution until blocked or the token is cancelled, publishing the solutions as they are found.
+     *
+     * The default implementation only publishes the final solution. Solvers that improve a solution over time
+     * (e.g. local searches) publish each improving solution, so that the caller always has the best solution
+     * found so far, even if it stops waiting for the solver.
+     *
+     * @param instance Jobshop instance that should be solved.
+     * @param token Token that is cancelled when the solver must stop (at the latest at the deadline of the token).
+     * @param improvements Called with each new best solution. It is never called concurrently, and the published
+     *                     schedules are not modified afterwards.
+     * @return An optional schedule that will be non empty if a solution was found.
+     */
+    default Optional<Schedule> solve(Instance instance, CancellationToken token, Consumer<Schedule> improvements) {
+        Optional<Schedule> result = solve(instance, token.deadline());
+        result.ifPresent(improvements);
+        return result;
+    }
+
+    /** Returns a solver that behaves like this one, but takes its random choices from a generator with the
+     * given seed, so that its runs can be reproduced. Deterministic solvers return themselves. */
+    default Solver withSeed(long seed) {
+        return this;
+    }
+
+    /** Work done by the solver during its last call to <code>solve</code>.
+     * Solvers that do not count their work return empty statistics. */
+    default SolverStatistics statistics() {
+        return new SolverStatistics();
+    }
+
     /** Static factory method to create a new solver based on its name. */
     static Solver getSolver(String name) {
+        return getSolver(name, Runtime.getRuntime().availableProcessors());
+    }
+
+    /** Static factory method to create a new solver based on its name.
+     *
+     * @param threads Maximal number of threads that the parallel solvers may use.
+     */
+    static Solver getSolver(String name, int threads) {
         switch (name) {
             case "basic": return new BasicSolver();
             case "spt": return new GreedySolver(GreedySolver.Priority.SPT);
@@ -36,6 +86,24 @@ public interface Solver {
             case "taboo_est_spt": return new TabooSolver(new Nowicki(),new GreedySolver(GreedySolver.Priority.EST_SPT), tabooTimer);
             case "taboo_est_lrpt": return new TabooSolver(new Nowicki(),new GreedySolver(GreedySolver.Priority.EST_LRPT), tabooTimer);
 
+            // Parallel evaluation of the neighborhood in a pool of the given threads (sequential with a single thread)
+            case "par_taboo_lrpt": return new TabooSolver(new Nowicki(),new GreedySolver(GreedySolver.Priority.LRPT), tabooTimer, threads, Integer.MAX_VALUE);
+            case "par_taboo_spt": return new TabooSolver(new Nowicki(),new GreedySolver(GreedySolver.Priority.SPT), tabooTimer, threads, Integer.MAX_VALUE);
+            case "par_taboo_est_spt": return new TabooSolver(new Nowicki(),new GreedySolver(GreedySolver.Priority.EST_SPT), tabooTimer, threads, Integer.MAX_VALUE);
+            case "par_taboo_est_lrpt": return new TabooSolver(new Nowicki(),new GreedySolver(GreedySolver.Priority.EST_LRPT), tabooTimer, threads, Integer.MAX_VALUE);
+
+            // Dynamic tenure, drawn in [tabooMinTenure, tabooMaxTenure] for each move
+            case "taboo_dyn_lrpt": return new TabooSolver(new Nowicki(),new GreedySolver(GreedySolver.Priority.LRPT), tabooMinTenure, tabooMaxTenure, 1, Integer.MAX_VALUE);
+            case "taboo_dyn_spt": return new TabooSolver(new Nowicki(),new GreedySolver(GreedySolver.Priority.SPT), tabooMinTenure, tabooMaxTenure, 1, Integer.MAX_VALUE);
+            case "taboo_dyn_est_spt": return new TabooSolver(new Nowicki(),new GreedySolver(GreedySolver.Priority.EST_SPT), tabooMinTenure, tabooMaxTenure, 1, Integer.MAX_VALUE);
+            case "taboo_dyn_est_lrpt": return new TabooSolver(new Nowicki(),new GreedySolver(GreedySolver.Priority.EST_LRPT), tabooMinTenure, tabooMaxTenure, 1, Integer.MAX_VALUE);
+
+            // Larger neighborhoods: all swaps in the blocks (N1), insertions at both ends of the blocks (N6)
+            case "desc_n1_est_lrpt": return new DescentSolver(new CriticalSwaps(),new GreedySolver(GreedySolver.Priority.EST_LRPT));
+            case "desc_n6_est_lrpt": return new DescentSolver(new BlockInsertions(),new GreedySolver(GreedySolver.Priority.EST_LRPT));
+            case "taboo_n1_est_lrpt": return new TabooSolver(new CriticalSwaps(),new GreedySolver(GreedySolver.Priority.EST_LRPT), tabooTimer);
+            case "taboo_n6_est_lrpt": return new TabooSolver(new BlockInsertions(),new GreedySolver(GreedySolver.Priority.EST_LRPT), tabooTimer);
+
             // Random
             case "spt_random": return new GreedySolver(GreedySolver.Priority.SPT, 0.95);
             case "lrpt_random": return new GreedySolver(GreedySolver.Priority.LRPT, 0.95);
@@ -51,6 +119,25 @@ public interface Solver {
             case "taboo_est_spt_random": return new TabooSolver(new Nowicki(),new GreedySolver(GreedySolver.Priority.EST_SPT, 0.95), tabooTimer);
             case "taboo_est_lrpt_random": return new TabooSolver(new Nowicki(),new GreedySolver(GreedySolver.Priority.EST_LRPT, 0.95), tabooTimer);
 
+            // Island model of taboo searches, one island per thread
+            case "island_taboo_lrpt_random": return new IslandTabooSolver(new Nowicki(),new GreedySolver(GreedySolver.Priority.LRPT, 0.95), threads, islandMigrationInterval, tabooMinTenure, tabooMaxTenure);
+            case "island_taboo_spt_random": return new IslandTabooSolver(new Nowicki(),new GreedySolver(GreedySolver.Priority.SPT, 0.95), threads, islandMigrationInterval, tabooMinTenure, tabooMaxTenure);
+            case "island_taboo_est_spt_random": return new IslandTabooSolver(new Nowicki(),new GreedySolver(GreedySolver.Priority.EST_SPT, 0.95), threads, islandMigrationInterval, tabooMinTenure, tabooMaxTenure);
+            case "island_taboo_est_lrpt_random": return new IslandTabooSolver(new Nowicki(),new GreedySolver(GreedySolver.Priority.EST_LRPT, 0.95), threads, islandMigrationInterval, tabooMinTenure, tabooMaxTenure);
+
+            // Parallel multistart descents, using all the given threads
+            case "par_desc_lrpt_random": return new ParallelDescentSolver(new Nowicki(),new GreedySolver(GreedySolver.Priority.LRPT, 0.95), 5*threads, threads);
+            case "par_desc_spt_random": return new ParallelDescentSolver(new Nowicki(),new GreedySolver(GreedySolver.Priority.SPT, 0.95), 5*threads, threads);
+            case "par_desc_est_spt_random": return new ParallelDescentSolver(new Nowicki(),new GreedySolver(GreedySolver.Priority.EST_SPT, 0.95), 5*threads, threads);
+            case "par_desc_est_lrpt_random": return new ParallelDescentSolver(new Nowicki(),new GreedySolver(GreedySolver.Priority.EST_LRPT, 0.95), 5*threads, threads);
+
+            // Exact solver, using all the given threads
+            case "bnb": return new BranchAndBoundSolver(new TabooSolver(new Nowicki(),new GreedySolver(GreedySolver.Priority.EST_LRPT), tabooTimer), branchAndBoundSeedTime, threads);
+
+            // Genetic algorithms on the job numbers encoding, the children are produced by all the given threads
+            case "ga_est_lrpt": return new GeneticSolver(new GreedySolver(GreedySolver.Priority.EST_LRPT), null, geneticPopulation, threads);
+            case "memetic_est_lrpt": return new GeneticSolver(new GreedySolver(GreedySolver.Priority.EST_LRPT), new Nowicki(), geneticPopulation, threads);
+
             default: throw new RuntimeException("Unknown solver: "+ name);
         }
     }
@@ -0,0 +1,120 @@
+package jobshop.solvers;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/** Counters of the work done by a solver during its last run.
+ *
+ * The counters can be incremented concurrently by the workers of a parallel solver. They are meant to be updated
+ * in bulk (e.g. once per iteration) rather than for each elementary operation.
+ *
+ * Solvers also report the makespan of their current solution with <code>progress</code>, once per iteration.
+ * This keeps track of the time of the last improvement and feeds the trace, if one is attached.
+ */
+public class SolverStatistics {
+
+    /** Number of iterations (e.g. moves of a local search). */
+    final LongAdder iterations = new LongAdder();
+
+    /** Number of neighbors evaluated, either exactly or by an estimate. */
+    final LongAdder evaluations = new LongAdder();
+
+    /** Number of evaluated neighbors that were not valid solutions. */
+    final LongAdder infeasible = new LongAdder();
+
+    /** Number of evaluated neighbors that were rejected because their move was taboo. */
+    final LongAdder taboo = new LongAdder();
+
+    /** Time (in milliseconds) at which the run started. */
+    private long start = System.currentTimeMillis();
+
+    /** Best makespan reported during the run. */
+    private int best = Integer.MAX_VALUE;
+
+    /** Time elapsed between the start of the run and the last improvement of the best makespan. */
+    private long lastImprovement = 0;
+
+    /** Lower bound of the makespan proven during the run, 0 if the solver proves none. */
+    private int lowerBound = 0;
+
+    /** Trace of the run, null if the run is not traced. */
+    private Trace trace = null;
+
+    /** Elapsed time after which the next sample of the trace can be recorded. */
+    private long nextSample = 0;
+
+    /** Number of iterations performed by the solver. */
+    public long iterations() {
+        return iterations.sum();
+    }
+
+    /** Number of candidate solutions evaluated by the solver. */
+    public long evaluations() {
+        return evaluations.sum();
+    }
+
+    /** Number of evaluated candidates that were not valid solutions. */
+    public long infeasible() {
+        return infeasible.sum();
+    }
+
+    /** Number of evaluated candidates that were rejected because they were taboo. */
+    public long taboo() {
+        return taboo.sum();
+    }
+
+    /** Time elapsed (in milliseconds) between the start of the run and the last improvement of the best solution. */
+    public synchronized long lastImprovement() {
+        return lastImprovement;
+    }
+
+    /** Lower bound of the makespan proven by the solver during the run (0 if the solver proves none). An exact
+     * solver that completes its search reports the makespan of its solution. */
+    public synchronized int lowerBound() {
+        return lowerBound;
+    }
+
+    /** Gap (in percent) between the given makespan and the lower bound proven during the run, or -1 if the solver
+     * proves no bound. A gap of 0 means that the solution is optimal. */
+    public synchronized float optimalityGap(int makespan) {
+        return lowerBound == 0 ? -1 : 100f * (makespan - lowerBound) / (float) lowerBound;
+    }
+
+    /** Records a sampled trace of the next runs in the given trace (null to stop tracing). */
+    public synchronized void setTrace(Trace trace) {
+        this.trace = trace;
+    }
+
+    /** Reports the makespan of the current solution at the given iteration. */
+    synchronized void progress(long iteration, int current) {
+        long elapsed = System.currentTimeMillis() - start;
+        if (current < best) {
+            best = current;
+            lastImprovement = elapsed;
+        }
+        if (trace != null && elapsed >= nextSample) {
+            trace.add(elapsed, iteration, current, best);
+            nextSample = elapsed + trace.interval;
+        }
+    }
+
+    /** Reports the lower bound of the makespan proven at the end of the run. */
+    synchronized void setLowerBound(int lowerBound) {
+        this.lowerBound = lowerBound;
+    }
+
+    /** Sets all counters back to zero, at the beginning of a run. */
+    synchronized void reset() {
+        iterations.reset();
+        evaluations.reset();
+        infeasible.reset();
+        taboo.reset();
+        start = System.currentTimeMillis();
+        best = Integer.MAX_VALUE;
+        lastImprovement = 0;
+        lowerBound = 0;
+        nextSample = 0;
+        if (trace != null) {
+            trace.clear();
+        }
+    }
+}
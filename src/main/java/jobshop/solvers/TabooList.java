@@ -0,0 +1,63 @@
+package jobshop.solvers;
+
+import jobshop.Instance;
+
+import java.util.Random;
+
+/** Taboo memory of the taboo solver, based on the attributes of the moves.
+ *
+ * When a move puts a task v before a task u of the same machine, putting u back before v becomes taboo for a
+ * number of iterations (the tenure). The memory stores, for each ordered pair of tasks of a machine, the iteration
+ * until which the pair is forbidden. Checking or recording a move thus takes constant time, whatever the tenure.
+ *
+ * The tenure of each move is drawn uniformly in [minTenure, maxTenure] (a fixed tenure when both are equal).
+ */
+public class TabooList {
+
+    final Instance instance;
+
+    /** Bounds of the tenure of a move (inclusive). */
+    final int minTenure, maxTenure;
+
+    /** Generator used to draw the tenure of each move. */
+    final Random random;
+
+    /** For each machine m and jobs j1, j2, tabooUntil[(m * numJobs + j1) * numJobs + j2] is the iteration until which
+     * the task of j1 on m cannot be placed before the task of j2 on m. */
+    final int[] tabooUntil;
+
+    /** Creates an empty taboo list for the given instance.
+     *
+     * @param minTenure Minimal number of iterations during which a move is taboo.
+     * @param maxTenure Maximal number of iterations during which a move is taboo.
+     * @param random Generator for the tenure of each move (only used if minTenure is different from maxTenure).
+     */
+    public TabooList(Instance instance, int minTenure, int maxTenure, Random random) {
+        if (minTenure > maxTenure) {
+            throw new IllegalArgumentException("Invalid tenure range: [" + minTenure + ", " + maxTenure + "]");
+        }
+        this.instance = instance;
+        this.minTenure = minTenure;
+        this.maxTenure = maxTenure;
+        this.random = random;
+        this.tabooUntil = new int[instance.numMachines * instance.numJobs * instance.numJobs];
+    }
+
+    private int index(int before, int after) {
+        int numJobs = instance.numJobs;
+        return (instance.machine(before) * numJobs + instance.jobOf(before)) * numJobs + instance.jobOf(after);
+    }
+
+    /** Returns true if, at the given iteration, placing the task <code>before</code> before the task <code>after</code>
+     * (two task identifiers of the same machine) is taboo. */
+    public boolean isTaboo(int before, int after, int iteration) {
+        return tabooUntil[index(before, after)] > iteration;
+    }
+
+    /** Forbids, from the given iteration, to place the task <code>before</code> before the task <code>after</code>
+     * (two task identifiers of the same machine). */
+    public void forbid(int before, int after, int iteration) {
+        int tenure = minTenure == maxTenure ? minTenure : minTenure + random.nextInt(maxTenure - minTenure + 1);
+        tabooUntil[index(before, after)] = iteration + 1 + tenure;
+    }
+}
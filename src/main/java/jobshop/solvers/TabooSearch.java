@@ -0,0 +1,192 @@
+package jobshop.solvers;
+
+import jobshop.Instance;
+import jobshop.encodings.ResourceOrder;
+import jobshop.solvers.neighborhood.Move;
+import jobshop.solvers.neighborhood.Neighborhood;
+import jobshop.solvers.neighborhood.SwapEvaluator;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/** State of a taboo search on a neighborhood, that can be advanced one iteration at a time.
+ *
+ * This is the search performed by the TabooSolver. It is exposed separately so that it can be interleaved with
+ * other work (e.g. exchanging solutions between searches) and measured iteration by iteration.
+ */
+public class TabooSearch {
+
+    final Instance instance;
+    final Neighborhood neighborhood;
+    /** Pool in which the neighbors of each iteration are evaluated in parallel, null for a sequential evaluation. */
+    final ForkJoinPool pool;
+
+    /** Current solution, modified in place. */
+    final ResourceOrder current;
+    /** Heads and tails of the current solution. */
+    final SwapEvaluator evaluator;
+    /** Moves that are currently forbidden. */
+    final TabooList taboo;
+
+    /** Best solution found so far (a copy is only made when a new best solution is found). */
+    ResourceOrder best;
+    int bestMakespan;
+
+    /** Number of iterations performed. */
+    int iteration = 0;
+
+    /** Number of neighbors evaluated. */
+    long evaluations = 0;
+
+    /** Number of evaluated neighbors that were not valid solutions. */
+    long infeasible = 0;
+
+    /** Number of evaluated neighbors that were rejected because they were taboo. */
+    long tabooRejected = 0;
+
+    /** Starts a new taboo search from the given solution.
+     *
+     * @param neighborhood Neighborhood in which the moves are chosen.
+     * @param initial Initial solution, it is not modified by the search.
+     * @param minTenure Minimal number of iterations during which a reversed move is taboo.
+     * @param maxTenure Maximal number of iterations during which a reversed move is taboo.
+     * @param random Generator for the tenure of the moves.
+     * @param pool Pool in which the neighbors of each iteration are evaluated in parallel, or null for a
+     *             sequential evaluation. The selected moves (and thus the trajectory of the search) are the same
+     *             in both cases. The pool is owned by the caller.
+     */
+    public TabooSearch(Neighborhood neighborhood, ResourceOrder initial, int minTenure, int maxTenure, Random random,
+                       ForkJoinPool pool) {
+        this.instance = initial.instance;
+        this.neighborhood = neighborhood;
+        this.pool = pool;
+        this.current = initial.copy();
+        this.evaluator = new SwapEvaluator(instance);
+        if (!evaluator.reset(current)) {
+            throw new IllegalArgumentException("The initial solution is not valid");
+        }
+        this.taboo = new TabooList(instance, minTenure, maxTenure, random);
+        this.best = current.copy();
+        this.bestMakespan = evaluator.makespan();
+    }
+
+    /** Performs one iteration: moves to the best admissible neighbor of the current solution.
+     *
+     * @return False if the current solution has no admissible neighbor, in which case the search cannot proceed.
+     */
+    public boolean step() {
+        List<Move> moves = neighborhood.allMoves(current, evaluator.criticalPath());
+
+        // estimated makespan of the neighbors, without building them
+        int[] estimates = estimateAll(moves);
+        evaluations += moves.size();
+
+        int best_neighboor_makespan =-1;
+        Move best_move = null;
+        // the selection is always sequential, in the order of the neighborhood, for a deterministic tie-breaking
+        for (int s = 0; s < moves.size(); s++) {
+            Move move = moves.get(s);
+            int candidate = estimates[s];
+            if (candidate == Integer.MAX_VALUE) {
+                infeasible++;
+                continue;
+            }
+            // si pas taboo
+            if (!isTaboo(move)) {
+                if (best_move==null || candidate < best_neighboor_makespan) {
+                    best_neighboor_makespan = candidate;
+                    best_move = move;
+                }
+            // Taboo mais améliore la meilleure solution
+            } else if (candidate < bestMakespan) {
+                best_neighboor_makespan = candidate;
+                best_move = move;
+            } else {
+                tabooRejected++;
+            }
+        }
+        if (best_move == null) {
+            // no admissible neighbor
+            return false;
+        }
+
+        // putting the tasks back in their current order becomes taboo
+        for (int k = 0; k < best_move.reversedPairs(); k++) {
+            taboo.forbid(best_move.placedSecond(current, k), best_move.placedFirst(current, k), iteration);
+        }
+
+        // only the chosen move is materialized
+        best_move.applyOn(current);
+        if (!evaluator.reset(current)) {
+            // the move created a cycle, revert it and stop here
+            best_move.undoApplyOn(current);
+            evaluator.reset(current);
+            return false;
+        }
+        if (evaluator.makespan() < bestMakespan){
+            best = current.copy();
+            bestMakespan = evaluator.makespan();
+        }
+        iteration++;
+        return true;
+    }
+
+    /** A move is taboo if it reverses a pair of tasks whose current order was recently created. */
+    private boolean isTaboo(Move move) {
+        for (int k = 0; k < move.reversedPairs(); k++) {
+            if (taboo.isTaboo(move.placedFirst(current, k), move.placedSecond(current, k), iteration)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Estimates the makespan of all given moves, in parallel if a pool was given.
+     * The evaluator is only read during the estimation, so that it can be shared by all threads.
+     */
+    private int[] estimateAll(List<Move> moves) {
+        if (pool == null) {
+            return IntStream.range(0, moves.size()).map(s -> evaluator.estimate(moves.get(s))).toArray();
+        }
+        // a parallel stream started from a task of the pool runs in this pool, not in the common pool
+        return pool.submit(() -> IntStream.range(0, moves.size()).parallel()
+                .map(s -> evaluator.estimate(moves.get(s))).toArray()).join();
+    }
+
+    /** Number of iterations performed so far. */
+    public int iteration() {
+        return iteration;
+    }
+
+    /** Number of neighbors evaluated so far. */
+    public long evaluations() {
+        return evaluations;
+    }
+
+    /** Number of evaluated neighbors that were not valid solutions. */
+    public long infeasible() {
+        return infeasible;
+    }
+
+    /** Number of evaluated neighbors that were rejected because they were taboo. */
+    public long tabooRejected() {
+        return tabooRejected;
+    }
+
+    /** Makespan of the current solution. */
+    public int currentMakespan() {
+        return evaluator.makespan();
+    }
+
+    /** Best solution found so far. It must not be modified. */
+    public ResourceOrder best() {
+        return best;
+    }
+
+    /** Makespan of the best solution found so far. */
+    public int bestMakespan() {
+        return bestMakespan;
+    }
+}
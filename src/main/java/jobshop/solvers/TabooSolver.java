@@ -5,96 +5,136 @@ import jobshop.encodings.ResourceOrder;
 import jobshop.encodings.Schedule;
 import jobshop.encodings.Task;
 import jobshop.solvers.neighborhood.Neighborhood;
-import jobshop.solvers.neighborhood.Nowicki;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
 public class TabooSolver implements Solver{
 
     Neighborhood neighborhood;
     Solver baseSolver;
-    int tabooTimer;
+    /** Bounds of the number of iterations during which a reversed move stays taboo. */
+    int minTenure, maxTenure;
+    /** Number of threads evaluating the neighbors of each iteration, 1 for a sequential evaluation. */
+    int threads;
+    /** Maximal number of iterations, the search stops at the deadline or after this many iterations. */
+    int maxIterations;
+    /** Seed of the generator of the tenures, null for a random seed. */
+    Long seed = null;
+    /** Work done during the last run. */
+    final SolverStatistics statistics = new SolverStatistics();
+
     /** Creates a new taboo solver with a given neighborhood and a solver for the initial solution.
      *
      * @param neighborhood Neighborhood object that should be used to generates neighbor solutions to the current candidate.
      * @param baseSolver A solver to provide the initial solution.
      */
     public TabooSolver(Neighborhood neighborhood, Solver baseSolver, int timer) {
+        this(neighborhood, baseSolver, timer, 1, Integer.MAX_VALUE);
+    }
+
+    /** Creates a new taboo solver with a given neighborhood and a solver for the initial solution.
+     *
+     * @param neighborhood Neighborhood object that should be used to generates neighbor solutions to the current candidate.
+     * @param baseSolver A solver to provide the initial solution.
+     * @param threads Number of threads evaluating the neighbors of each iteration, in a pool owned by the solver
+     *                (1 for a sequential evaluation). The selected moves (and thus the trajectory of the search)
+     *                are the same as with a sequential evaluation.
+     * @param maxIterations Maximal number of iterations of the search.
+     */
+    public TabooSolver(Neighborhood neighborhood, Solver baseSolver, int timer, int threads, int maxIterations) {
+        this(neighborhood, baseSolver, timer, timer, threads, maxIterations);
+    }
+
+    /** Creates a new taboo solver whose tenure is drawn at random for each move, as in TSAB.
+     *
+     * @param neighborhood Neighborhood object that should be used to generates neighbor solutions to the current candidate.
+     * @param baseSolver A solver to provide the initial solution.
+     * @param minTenure Minimal number of iterations during which a reversed move is taboo.
+     * @param maxTenure Maximal number of iterations during which a reversed move is taboo.
+     * @param threads Number of threads evaluating the neighbors of each iteration, 1 for a sequential evaluation.
+     * @param maxIterations Maximal number of iterations of the search.
+     */
+    public TabooSolver(Neighborhood neighborhood, Solver baseSolver, int minTenure, int maxTenure,
+                       int threads, int maxIterations) {
         this.neighborhood = neighborhood;
         this.baseSolver = baseSolver;
-        this.tabooTimer = timer;
+        this.minTenure = minTenure;
+        this.maxTenure = maxTenure;
+        this.threads = threads;
+        this.maxIterations = maxIterations;
     }
 
-    private boolean contains(Nowicki.Swap[] array, Nowicki.Swap item){
-        boolean res = false;
-        if (item != null){
-            for (int i =0; i<array.length; i++){
-                if(item.equals(array[i])) {
-                    res = true;
-                }
-            }
-        }
-        return res;
-    }
 
+    @Override
+    public Solver withSeed(long seed) {
+        TabooSolver seeded = new TabooSolver(neighborhood, baseSolver.withSeed(seed), minTenure, maxTenure,
+                threads, maxIterations);
+        seeded.seed = seed;
+        return seeded;
+    }
 
     @Override
     public Optional<Schedule> solve(Instance instance, long deadline) {
+        // stops early if a solution reaches the lower bound of the instance
+        return solve(instance, new CancellationToken(deadline, instance.lowerBound()), s -> {});
+    }
 
-        Optional<Schedule> current_sol = baseSolver.solve(instance,deadline);
-        int current_makespan = current_sol.get().makespan();
-        Optional<Schedule> best_sol = current_sol;
-        int best_makespan = best_sol.get().makespan();
-
-        Nowicki.Swap best_swap = null;
-
-        ResourceOrder solution_ro;
+    @Override
+    public Optional<Schedule> solve(Instance instance, CancellationToken token, Consumer<Schedule> improvements) {
+        statistics.reset();
 
-        Nowicki.Swap[] tabooSwaps = new Nowicki.Swap[tabooTimer];
-        for (int i =0; i <tabooTimer; i++){
-            tabooSwaps[i] = null;
+        Optional<Schedule> initial_sol = baseSolver.solve(instance, token, s -> {});
+        if (initial_sol.isEmpty()) {
+            return initial_sol;
         }
-        int i = 0;
-
-        while(current_sol!=null&&((System.currentTimeMillis())<deadline)){
-            solution_ro = new ResourceOrder(current_sol.get());
-
-            List<Nowicki.Swap> swaps = ((Nowicki)neighborhood).allSwaps(solution_ro);
-
-            Optional<Schedule> best_neighboor = null;
-            int best_neighboor_makespan =-1;
-            best_swap = null;
-            for (Nowicki.Swap swap : swaps) {
-                Optional<Schedule> candidate = swap.generateFrom(solution_ro).toSchedule();
-                // si pas taboo
-                if (!contains(tabooSwaps, swap)) {
-                    if (candidate.isPresent() && candidate.get().isValid() && (best_neighboor==null || candidate.get().makespan() < best_neighboor_makespan)) {
-                        best_neighboor_makespan = candidate.get().makespan();
-                        best_neighboor = candidate;
-                        best_swap = swap;
-                    }
-                // Taboo mais améliore la meilleure solution
-                } else if (candidate.isPresent() && candidate.get().isValid() && (candidate.get().makespan() < best_makespan)) {
-                    best_neighboor_makespan = candidate.get().makespan();
-                    best_neighboor = candidate;
-                    best_swap = swap;
-                }
-            }
-            current_sol = best_neighboor;
-            current_makespan = best_neighboor_makespan;
-            if (current_makespan<best_makespan && current_sol != null){
-                best_sol = current_sol;
-                best_makespan = current_makespan;
+        improvements.accept(initial_sol.get());
+        token.offer(initial_sol.get().makespan());
+
+        // the pool is owned by this run, so that concurrent runs do not share their threads
+        ForkJoinPool pool = threads > 1 ? new ForkJoinPool(threads) : null;
+        try {
+            return search(token, improvements, initial_sol.get(), pool);
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
             }
+        }
+    }
 
-            if (best_swap != null) {
-                tabooSwaps[i]=best_swap;
-                i= (i+1)%tabooTimer;
+    /** Runs the taboo search from the given initial solution. */
+    private Optional<Schedule> search(CancellationToken token, Consumer<Schedule> improvements, Schedule initial,
+                                      ForkJoinPool pool) {
+        TabooSearch search = new TabooSearch(neighborhood, new ResourceOrder(initial),
+                minTenure, maxTenure, seed == null ? ThreadLocalRandom.current() : new Random(seed), pool);
+
+        int published = search.bestMakespan();
+        statistics.progress(0, published);
+        while (search.iteration() < maxIterations && !token.isCancelled()) {
+            if (!search.step()) {
+                // no admissible neighbor
+                break;
+            }
+            statistics.progress(search.iteration(), search.currentMakespan());
+            if (search.bestMakespan() < published) {
+                published = search.bestMakespan();
+                improvements.accept(search.best().toSchedule().get());
+                token.offer(published);
             }
-
         }
+        statistics.iterations.add(search.iteration());
+        statistics.evaluations.add(search.evaluations());
+        statistics.infeasible.add(search.infeasible());
+        statistics.taboo.add(search.tabooRejected());
+
+        return search.best().toSchedule();
+    }
 
-        return best_sol;
+    @Override
+    public SolverStatistics statistics() {
+        return statistics;
     }
 }
@@ -0,0 +1,84 @@
+package jobshop.solvers;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/** Sampled trace of the progress of a solver during a run.
+ *
+ * Each sample records the time elapsed since the start of the run, the iteration, the makespan of the current
+ * solution and the best makespan so far. At most one sample is recorded per interval, so that tracing has a
+ * negligible cost even for solvers doing thousands of iterations per second.
+ */
+public class Trace {
+
+    /** Minimal time between two samples, in milliseconds. */
+    final long interval;
+
+    /** Samples, four values per sample: elapsed time, iteration, current makespan, best makespan. */
+    private long[] samples = new long[4 * 64];
+
+    /** Number of samples recorded. */
+    private int size = 0;
+
+    /** Creates an empty trace that records at most one sample per interval (in milliseconds). */
+    public Trace(long interval) {
+        this.interval = interval;
+    }
+
+    /** Number of samples recorded. */
+    public int size() {
+        return size;
+    }
+
+    /** Elapsed time (in milliseconds) of the i-th sample. */
+    public long elapsed(int i) {
+        return samples[4 * i];
+    }
+
+    /** Iteration of the i-th sample. */
+    public long iteration(int i) {
+        return samples[4 * i + 1];
+    }
+
+    /** Makespan of the current solution at the i-th sample. */
+    public int current(int i) {
+        return (int) samples[4 * i + 2];
+    }
+
+    /** Best makespan at the i-th sample. */
+    public int best(int i) {
+        return (int) samples[4 * i + 3];
+    }
+
+    /** Records a sample. */
+    void add(long elapsed, long iteration, int current, int best) {
+        if (4 * size == samples.length) {
+            samples = Arrays.copyOf(samples, 2 * samples.length);
+        }
+        samples[4 * size] = elapsed;
+        samples[4 * size + 1] = iteration;
+        samples[4 * size + 2] = current;
+        samples[4 * size + 3] = best;
+        size++;
+    }
+
+    /** Removes all samples. */
+    void clear() {
+        size = 0;
+    }
+
+    /** Writes the trace as a CSV file with one line per sample. */
+    public void writeCsv(Path path) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(path)) {
+            writer.write("elapsed,iteration,current,best");
+            writer.newLine();
+            for (int i = 0; i < size; i++) {
+                writer.write(elapsed(i) + "," + iteration(i) + "," + current(i) + "," + best(i));
+                writer.newLine();
+            }
+        }
+    }
+}
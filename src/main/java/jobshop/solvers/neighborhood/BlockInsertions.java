@@ -0,0 +1,47 @@
+package jobshop.solvers.neighborhood;
+
+import jobshop.encodings.CriticalPath;
+import jobshop.encodings.ResourceOrder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/** A neighborhood in the spirit of N6 (Balas and Vazacopoulos): each task of a block of the critical path is moved
+ * to the front or to the back of its block.
+ *
+ * It contains the Nowicki neighborhood (moving the second task of a block to the front, or the penultimate one to the
+ * back, are the swaps at the ends of the block). Moving a task over several others can shorten the critical path
+ * when a swap cannot, at the price of more neighbors. Insertions that could create a cycle are filtered out by
+ * <code>SwapEvaluator.isFeasible</code>.
+ */
+public class BlockInsertions extends Neighborhood {
+
+    @Override
+    public List<Move> allMoves(ResourceOrder current, CriticalPath path) {
+        List<Move> moves = new ArrayList<>();
+        int[] blocks = new int[3 * path.length()];
+        int numBlocks = criticalBlocks(current, path.tasks(), path.length(), blocks);
+        for(int b = 0; b < numBlocks; b++) {
+            int machine = blocks[3*b];
+            int first = blocks[3*b+1];
+            int last = blocks[3*b+2];
+            // to the front of the block
+            for(int t = first + 1; t <= last; t++) {
+                moves.add(new Insertion(machine, t, first));
+            }
+            // to the back of the block (in a block of two tasks, it is the same neighbor as above)
+            if(last > first + 1) {
+                for(int t = first; t < last; t++) {
+                    moves.add(new Insertion(machine, t, last));
+                }
+            }
+        }
+        return moves;
+    }
+
+    @Override
+    public List<ResourceOrder> generateNeighbors(ResourceOrder current) {
+        return allMoves(current).stream().map(move -> move.generateFrom(current)).collect(Collectors.toList());
+    }
+}
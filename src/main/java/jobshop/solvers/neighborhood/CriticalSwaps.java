@@ -0,0 +1,36 @@
+package jobshop.solvers.neighborhood;
+
+import jobshop.encodings.CriticalPath;
+import jobshop.encodings.ResourceOrder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/** The N1 neighborhood (van Laarhoven, Aarts and Lenstra): all swaps of two adjacent tasks of a block of the
+ * critical path.
+ *
+ * It contains the Nowicki neighborhood, which only keeps the swaps at both ends of each block. The other swaps
+ * cannot improve the makespan immediately, but they give the search more ways to leave a local minimum.
+ */
+public class CriticalSwaps extends Neighborhood {
+
+    @Override
+    public List<Move> allMoves(ResourceOrder current, CriticalPath path) {
+        List<Move> moves = new ArrayList<>();
+        int[] blocks = new int[3 * path.length()];
+        int numBlocks = criticalBlocks(current, path.tasks(), path.length(), blocks);
+        for(int b = 0; b < numBlocks; b++) {
+            int machine = blocks[3*b];
+            for(int t = blocks[3*b+1]; t < blocks[3*b+2]; t++) {
+                moves.add(new Nowicki.Swap(machine, t, t + 1));
+            }
+        }
+        return moves;
+    }
+
+    @Override
+    public List<ResourceOrder> generateNeighbors(ResourceOrder current) {
+        return allMoves(current).stream().map(move -> move.generateFrom(current)).collect(Collectors.toList());
+    }
+}
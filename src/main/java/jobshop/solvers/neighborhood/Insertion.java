@@ -0,0 +1,110 @@
+package jobshop.solvers.neighborhood;
+
+import jobshop.encodings.ResourceOrder;
+
+import java.util.Objects;
+
+/**
+ * Represents the insertion of a task at another position of its machine's queue in a ResourceOrder encoding.
+ *
+ * Consider the solution in ResourceOrder representation
+ * machine 0 : (0,1) (1,2) (2,2)
+ * machine 1 : (0,2) (2,1) (1,1)
+ * machine 2 : ...
+ *
+ * The insertion with : machine = 1, from = 2 and to = 0
+ * moves the task (1,1) in front of the queue of the machine:
+ * machine 0 : (0,1) (1,2) (2,2)
+ * machine 1 : (1,1) (0,2) (2,1)
+ * machine 2 : ...
+ */
+public class Insertion extends Move {
+
+    /** position of the moved task before the move */
+    public final int from;
+
+    /** position of the moved task after the move */
+    public final int to;
+
+    /** Creates a new insertion of the task at position <code>from</code> at position <code>to</code>. */
+    Insertion(int machine, int from, int to) {
+        super(machine);
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    public int first() {
+        return Math.min(from, to);
+    }
+
+    @Override
+    public int last() {
+        return Math.max(from, to);
+    }
+
+    @Override
+    public int taskAfter(ResourceOrder order, int position) {
+        if (position == to) {
+            return order.getTaskIdOfMachine(machine, from);
+        }
+        // the tasks in between are shifted by one position, towards the former position of the moved task
+        return order.getTaskIdOfMachine(machine, from < to ? position + 1 : position - 1);
+    }
+
+    /** The moved task changes its order with every task it passes. */
+    @Override
+    public int reversedPairs() {
+        return Math.abs(from - to);
+    }
+
+    @Override
+    public int placedFirst(ResourceOrder order, int k) {
+        // moved forward: it is placed before the tasks it passes, moved backward: they are placed before it
+        return order.getTaskIdOfMachine(machine, from > to ? from : from + 1 + k);
+    }
+
+    @Override
+    public int placedSecond(ResourceOrder order, int k) {
+        return order.getTaskIdOfMachine(machine, from > to ? to + k : from);
+    }
+
+    @Override
+    public void applyOn(ResourceOrder order) {
+        order.moveTask(machine, from, to);
+    }
+
+    @Override
+    public void undoApplyOn(ResourceOrder order) {
+        order.moveTask(machine, to, from);
+    }
+
+    @Override
+    boolean isFeasible(SwapEvaluator evaluator) {
+        return evaluator.isFeasibleInsertion(machine, from, to);
+    }
+
+    @Override
+    int estimate(SwapEvaluator evaluator) {
+        return evaluator.estimateSegment(this);
+    }
+
+    /** The estimate of an insertion is only a lower bound when it is a swap of adjacent tasks. */
+    @Override
+    public boolean estimateIsLowerBound() {
+        return Math.abs(from - to) == 1;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Insertion insertion = (Insertion) o;
+        return machine == insertion.machine && from == insertion.from && to == insertion.to;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(machine, from, to);
+    }
+}
@@ -0,0 +1,87 @@
+package jobshop.solvers.neighborhood;
+
+import jobshop.encodings.Decoder;
+import jobshop.encodings.ResourceOrder;
+import jobshop.encodings.Schedule;
+
+/** A move from a solution in the ResourceOrder encoding to one of its neighbors: a change in the order of the tasks
+ * of a single machine.
+ *
+ * Only the tasks between the positions <code>first()</code> and <code>last()</code> of the machine's queue change
+ * position, which allows a SwapEvaluator to estimate the makespan of the neighbor from the heads and tails of the
+ * current solution, without building the neighbor.
+ */
+public abstract class Move {
+
+    /** machine on which the move is performed */
+    public final int machine;
+
+    Move(int machine) {
+        this.machine = machine;
+    }
+
+    /** Position (in the machine's queue) of the first task that changes position. */
+    public abstract int first();
+
+    /** Position (in the machine's queue) of the last task that changes position. */
+    public abstract int last();
+
+    /** Identifier of the task that is at the given position of the machine's queue once the move is applied on the
+     * given resource order (which is not modified). */
+    public abstract int taskAfter(ResourceOrder order, int position);
+
+    /** Number of pairs of tasks of the machine whose order is reversed by the move. */
+    public abstract int reversedPairs();
+
+    /** The k-th pair reversed by the move: the move places the task <code>placedFirst(order, k)</code> in front of
+     * the task <code>placedSecond(order, k)</code>, which is before it in the given resource order. Putting any of
+     * these pairs back in their current order partly reverts the move. */
+    public abstract int placedFirst(ResourceOrder order, int k);
+
+    /** See <code>placedFirst</code>. */
+    public abstract int placedSecond(ResourceOrder order, int k);
+
+    /** Performs the move in place on the given ResourceOrder. */
+    public abstract void applyOn(ResourceOrder order);
+
+    /** Reverts the move previously performed by <code>applyOn</code> on the given ResourceOrder. */
+    public abstract void undoApplyOn(ResourceOrder order);
+
+    /** Returns true if the move applied on the resource order cached by the evaluator does not create a cycle. */
+    abstract boolean isFeasible(SwapEvaluator evaluator);
+
+    /** Estimates the makespan of the move applied on the resource order cached by the evaluator, see
+     * <code>SwapEvaluator.estimate(Move)</code>. */
+    abstract int estimate(SwapEvaluator evaluator);
+
+    /** Returns true if the estimate of the move (see <code>SwapEvaluator.estimate(Move)</code>) is a lower bound of
+     * the makespan of the neighbor. Otherwise, a move whose estimate is not better than the current makespan may
+     * still improve it. */
+    public abstract boolean estimateIsLowerBound();
+
+    /** Creates a new ResourceOrder order that is the result of performing the move in the original ResourceOrder.
+     *  The original ResourceOrder MUST NOT be modified by this operation.
+     */
+    public ResourceOrder generateFrom(ResourceOrder original) {
+        ResourceOrder res = new ResourceOrder(original);
+        applyOn(res);
+        return res;
+    }
+
+    /** Computes the exact makespan of the neighbor without copying the resource order.
+     *
+     * The move is applied in place, the order is decoded into the given buffer and the move is undone.
+     * The order is thus left unchanged, but it must not be read by other threads in the meantime.
+     *
+     * @param order Resource order from which the neighbor is obtained.
+     * @param decoder Decoder to use for the evaluation.
+     * @param buffer Schedule in which the neighbor is decoded.
+     * @return The makespan of the neighbor, or <code>Integer.MAX_VALUE</code> if the neighbor is not valid.
+     */
+    public int evaluate(ResourceOrder order, Decoder decoder, Schedule buffer) {
+        applyOn(order);
+        int makespan = decoder.decode(order, buffer) ? buffer.makespan() : Integer.MAX_VALUE;
+        undoApplyOn(order);
+        return makespan;
+    }
+}
@@ -1,15 +1,106 @@
 package jobshop.solvers.neighborhood;
 
+import jobshop.encodings.CriticalPath;
+import jobshop.encodings.Decoder;
 import jobshop.encodings.ResourceOrder;
+import jobshop.encodings.Schedule;
 
 import java.util.List;
+import java.util.function.Predicate;
 
 /** For a particular solution in the ResourceOrder encoding, a neighborhood allows the generation of its neighbors:
  * a set of closely related solutions.
+ *
+ * The neighbors can also be enumerated as moves (see <code>allMoves</code>), which solvers estimate with a
+ * SwapEvaluator and apply in place, whatever the neighborhood.
  */
 public abstract class Neighborhood {
 
+    /** Generates all moves from the current solution to its neighbors.
+     *
+     * @param current Solution whose neighbors are generated. It must not change while the moves are used.
+     * @param path Critical path of the current solution, computed by a Decoder.
+     */
+    public abstract List<Move> allMoves(ResourceOrder current, CriticalPath path);
+
+    /** Generates all moves from the current solution to its neighbors, decoding the solution to find its critical
+     * path. */
+    public List<Move> allMoves(ResourceOrder current) {
+        Decoder decoder = new Decoder(current.instance);
+        if(!decoder.decode(current, new Schedule(current.instance))) {
+            throw new IllegalArgumentException("The resource order is not a valid solution");
+        }
+        CriticalPath path = new CriticalPath(current.instance);
+        decoder.criticalPath(path);
+        return allMoves(current, path);
+    }
+
     /** Generates all neighbors for the current solution.  */
     public abstract List<ResourceOrder> generateNeighbors(ResourceOrder current);
 
+    /** Visits the neighbors of the current solution one at a time.
+     *
+     * The resource order given to the visitor is only valid during the call: it may be <code>current</code> itself,
+     * modified in place and restored afterwards (even if the visitor throws). The visitor must copy it to keep it.
+     * Neighborhoods should override this method to avoid building all neighbors, the default implementation relies on
+     * <code>generateNeighbors</code>.
+     *
+     * @param current Solution whose neighbors are visited. It is unchanged when the method returns.
+     * @param path Critical path of the current solution, computed by a Decoder.
+     * @param visitor Function called on each neighbor, that returns false to stop the enumeration.
+     */
+    public void forEachNeighbor(ResourceOrder current, CriticalPath path, Predicate<ResourceOrder> visitor) {
+        for(ResourceOrder neighbor : generateNeighbors(current)) {
+            if(!visitor.test(neighbor))
+                return;
+        }
+    }
+
+    /** Visits the neighbors of the current solution one at a time, decoding the solution to find its critical
+     * path. See <code>forEachNeighbor(ResourceOrder, CriticalPath, Predicate)</code>. */
+    public void forEachNeighbor(ResourceOrder current, Predicate<ResourceOrder> visitor) {
+        Decoder decoder = new Decoder(current.instance);
+        if(!decoder.decode(current, new Schedule(current.instance))) {
+            throw new IllegalArgumentException("The resource order is not a valid solution");
+        }
+        CriticalPath path = new CriticalPath(current.instance);
+        decoder.criticalPath(path);
+        forEachNeighbor(current, path, visitor);
+    }
+
+    /** Computes the blocks of a critical path in a single pass over the path.
+     *
+     * A block is a maximal sequence of at least two consecutive tasks of the critical path that execute on the same
+     * machine. Such tasks are also consecutive in the queue of the machine.
+     *
+     * @param order Resource order whose critical path is given.
+     * @param critical Identifiers of the tasks on the critical path, in order.
+     * @param length Number of tasks in the critical path.
+     * @param blocks Array in which the blocks are written as triples (machine, index of the first task,
+     *               index of the last task), indices being positions in the queue of the machine.
+     *               Its size must be at least 3 * length / 2.
+     * @return The number of blocks.
+     */
+    static int criticalBlocks(ResourceOrder order, int[] critical, int length, int[] blocks) {
+        int numBlocks = 0;
+        int start = 0;
+        while(start < length) {
+            int machine = order.instance.machine(critical[start]);
+            // extend the block as long as the tasks are on the same machine
+            int end = start;
+            while(end + 1 < length && order.instance.machine(critical[end + 1]) == machine) {
+                end++;
+            }
+            if(end > start) {
+                int first = order.positionOf(critical[start]);
+                blocks[3*numBlocks] = machine;
+                blocks[3*numBlocks+1] = first;
+                blocks[3*numBlocks+2] = first + (end - start);
+                numBlocks++;
+            }
+            start = end + 1;
+        }
+        return numBlocks;
+    }
+
 }
@@ -1,13 +1,16 @@
 package jobshop.solvers.neighborhood;
 
+import jobshop.encodings.CriticalPath;
 import jobshop.encodings.ResourceOrder;
-import jobshop.encodings.Schedule;
 import jobshop.encodings.Task;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 /** Implementation of the Nowicki and Smutnicki neighborhood.
@@ -62,10 +65,7 @@ public class Nowicki extends Neighborhood {
      * machine 1 : (2,1) (0,2) (1,1)
      * machine 2 : ...
      */
-    public static class Swap {
-        /** machine on which to perform the swap */
-        public final int machine;
-
+    public static class Swap extends Move {
         /** index of one task to be swapped (in the resource order encoding).
          * t1 should appear earlier than t2 in the resource order. */
         public final int t1;
@@ -75,7 +75,7 @@ public class Nowicki extends Neighborhood {
 
         /** Creates a new swap of two tasks. */
         Swap(int machine, int t1, int t2) {
-            this.machine = machine;
+            super(machine);
             if (t1 < t2) {
                 this.t1 = t1;
                 this.t2 = t2;
@@ -85,14 +85,70 @@ public class Nowicki extends Neighborhood {
             }
         }
 
+        @Override
+        public int first() {
+            return t1;
+        }
+
+        @Override
+        public int last() {
+            return t2;
+        }
+
+        @Override
+        public int taskAfter(ResourceOrder order, int position) {
+            if (position == t1) return order.getTaskIdOfMachine(machine, t2);
+            if (position == t2) return order.getTaskIdOfMachine(machine, t1);
+            return order.getTaskIdOfMachine(machine, position);
+        }
+
+        /** Only the order of the two swapped tasks is considered (for an adjacent swap, it is the only pair). */
+        @Override
+        public int reversedPairs() {
+            return 1;
+        }
+
+        @Override
+        public int placedFirst(ResourceOrder order, int k) {
+            return order.getTaskIdOfMachine(machine, t2);
+        }
+
+        @Override
+        public int placedSecond(ResourceOrder order, int k) {
+            return order.getTaskIdOfMachine(machine, t1);
+        }
+
+        /** Performs the swap in place on the given ResourceOrder. */
+        @Override
+        public void applyOn(ResourceOrder order) {
+            order.swapTasks(machine, t1, t2);
+        }
+
+        /** Reverts the swap previously performed by <code>applyOn</code> on the given ResourceOrder. */
+        @Override
+        public void undoApplyOn(ResourceOrder order) {
+            // a swap is its own inverse
+            order.swapTasks(machine, t1, t2);
+        }
+
+        @Override
+        boolean isFeasible(SwapEvaluator evaluator) {
+            if (t2 == t1 + 1) {
+                // the second task is inserted before the first one
+                return evaluator.isFeasibleInsertion(machine, t2, t1);
+            }
+            return generateFrom(evaluator.order).toSchedule().isPresent();
+        }
+
+        @Override
+        int estimate(SwapEvaluator evaluator) {
+            return evaluator.estimateSwap(this);
+        }
 
-        /** Creates a new ResourceOrder order that is the result of performing the swap in the original ResourceOrder.
-         *  The original ResourceOrder MUST NOT be modified by this operation.
-         */
-        public ResourceOrder generateFrom(ResourceOrder original) {
-            ResourceOrder res = new ResourceOrder(original);
-            res.swapTasks(machine,t1,t2);
-            return res;
+        /** The estimate of a swap on the critical path is a lower bound (an exact evaluation for other swaps). */
+        @Override
+        public boolean estimateIsLowerBound() {
+            return true;
         }
 
         @Override
@@ -110,6 +166,15 @@ public class Nowicki extends Neighborhood {
     }
 
 
+    @Override
+    public List<Move> allMoves(ResourceOrder current, CriticalPath path) {
+        List<Move> moves = new ArrayList<>();
+        for(Swap swap : swaps(current, path)) {
+            moves.add(swap);
+        }
+        return moves;
+    }
+
     @Override
     public List<ResourceOrder> generateNeighbors(ResourceOrder current) {
         // convert the list of swaps into a list of neighbors (function programming FTW)
@@ -117,6 +182,21 @@ public class Nowicki extends Neighborhood {
 
     }
 
+    @Override
+    public void forEachNeighbor(ResourceOrder current, CriticalPath path, Predicate<ResourceOrder> visitor) {
+        for(Swap swap : swaps(current, path)) {
+            boolean proceed;
+            swap.applyOn(current);
+            try {
+                proceed = visitor.test(current);
+            } finally {
+                swap.undoApplyOn(current);
+            }
+            if(!proceed)
+                return;
+        }
+    }
+
     /** Generates all swaps of the given ResourceOrder.
      * This method can be used if one wants to access the inner fields of a neighbors. */
     public List<Swap> allSwaps(ResourceOrder current) {
@@ -129,43 +209,65 @@ public class Nowicki extends Neighborhood {
         return neighbors;
     }
 
-    /** Returns a list of all the blocks of the critical path. */
-    List<Block> blocksOfCriticalPath(ResourceOrder order) {
-        Schedule s = order.toSchedule().get();
-        List<Task> critical = s.criticalPath();
-        List<Block> res = new ArrayList<>();
-        for(int i = 0; i<order.instance.numMachines; i++){
-            int last_critical=-1;
-            for (int j=0; j<order.instance.numJobs; j++){
-                Task t = order.getTaskOfMachine(i,j);
-                // start of a critical cession
-                if(critical.contains(t)&&last_critical==-1){
-                    last_critical = j;
-                }
-                // middle of the list, critical but non consecutive in the critical path
-                else if((last_critical!=-1&&critical.contains(t))
-                        &&
-                        ((critical.indexOf(t)-1!=critical.indexOf(order.getTaskOfMachine(i,j-1)))
-                            // or end of the list & critical section
-                            || j==order.instance.numJobs-1))
-                   {
-                    if(critical.indexOf(t)-1!=critical.indexOf(order.getTaskOfMachine(i,j-1))){
-                        if(j-1!=last_critical) {
-                            res.add(new Block(i, last_critical, j-1));
-                        }
-                    } else {
-                        res.add(new Block(i, last_critical, j));
-                    }
-                   last_critical = j;
+    /** Generates all swaps of the given ResourceOrder, whose critical path is already known.
+     * Unlike <code>allSwaps(ResourceOrder)</code>, the resource order is not decoded again. */
+    public List<Swap> allSwaps(ResourceOrder current, CriticalPath path) {
+        List<Swap> neighbors = new ArrayList<>();
+        for(Swap swap : swaps(current, path)) {
+            neighbors.add(swap);
+        }
+        return neighbors;
+    }
+
+    /** Lazily enumerates the swaps of the given ResourceOrder, whose critical path is already known.
+     *
+     * The blocks of the critical path are computed (see <code>Neighborhood.criticalBlocks</code>) when the iteration
+     * starts, and the swaps are only created as the iteration proceeds. The swaps are produced in the same order as
+     * by <code>allSwaps</code>. The resource order and the path must not change during the iteration.
+     */
+    public Iterable<Swap> swaps(ResourceOrder current, CriticalPath path) {
+        return () -> new Iterator<>() {
+            final int[] blocks = new int[3 * path.length() / 2];
+            final int numBlocks = criticalBlocks(current, path.tasks(), path.length(), blocks);
+            /** block of the next swap */
+            int block = 0;
+            /** true if the first swap of a block of more than two tasks was returned */
+            boolean second = false;
+
+            @Override
+            public boolean hasNext() {
+                return block < numBlocks;
+            }
+
+            @Override
+            public Swap next() {
+                if(block >= numBlocks)
+                    throw new NoSuchElementException();
+                // same swaps as neighbors(Block)
+                int machine = blocks[3*block], first = blocks[3*block+1], last = blocks[3*block+2];
+                if(first == last - 1) {
+                    block++;
+                    return new Swap(machine, first, last);
                 }
-                // end of critical section
-                else if(!critical.contains(t)&&last_critical!=-1){
-                    if(j-last_critical>1) {
-                        res.add(new Block(i, last_critical, j-1));
-                    }
-                    last_critical = -1;
+                if(!second) {
+                    second = true;
+                    return new Swap(machine, first, first + 1);
                 }
+                second = false;
+                block++;
+                return new Swap(machine, last - 1, last);
             }
+        };
+    }
+
+    /** Returns a list of all the blocks of the critical path. */
+    List<Block> blocksOfCriticalPath(ResourceOrder order) {
+        int[] critical = order.toSchedule().get().criticalPathIds();
+        int[] blocks = new int[3 * critical.length / 2];
+        int numBlocks = criticalBlocks(order, critical, critical.length, blocks);
+        List<Block> res = new ArrayList<>();
+        for(int b = 0; b < numBlocks; b++) {
+            res.add(new Block(blocks[3*b], blocks[3*b+1], blocks[3*b+2]));
         }
         return res;
     }
@@ -0,0 +1,201 @@
+package jobshop.solvers.neighborhood;
+
+import jobshop.Instance;
+import jobshop.encodings.CriticalPath;
+import jobshop.encodings.Decoder;
+import jobshop.encodings.ResourceOrder;
+import jobshop.encodings.Schedule;
+
+/** Evaluates the moves of a neighborhood without building the neighbor solutions.
+ *
+ * The evaluator caches, for the current ResourceOrder, the head (earliest start time) and the tail (length of the
+ * longest path from the end of the task to the end of the schedule) of every task.
+ * The makespan of a neighbor obtained by swapping two adjacent tasks u and v of a machine is then estimated in
+ * constant time by recomputing the heads and tails of u and v only (Taillard's estimate).
+ * When u and v are on a critical path, the estimate is a lower bound of the makespan of the neighbor and
+ * is exact whenever the new longest path goes through u or v.
+ *
+ * Other moves (e.g. insertions) are estimated the same way, by recomputing the heads and tails of the tasks that
+ * change position only (Balas and Vazacopoulos). Whether a move creates a cycle is checked in constant time,
+ * also from the heads and tails (see <code>isFeasible</code>).
+ *
+ * The evaluator allocates all its buffers once. A call to <code>reset</code> is needed each time the current
+ * solution changes.
+ */
+public class SwapEvaluator {
+
+    final Instance instance;
+
+    /** Decoder used to compute the heads and tails of the current solution. */
+    final Decoder decoder;
+
+    /** Start time of each task in the current solution. */
+    final Schedule schedule;
+
+    /** Heads, tails and critical path of the current solution. */
+    final CriticalPath path;
+
+    /** Duration of each task (by identifier). */
+    final int[] durations;
+
+    /** Resource order that is currently cached. */
+    ResourceOrder order;
+
+    /** Creates a new evaluator for solutions of the given instance. */
+    public SwapEvaluator(Instance instance) {
+        this.instance = instance;
+        this.decoder = new Decoder(instance);
+        this.schedule = new Schedule(instance);
+        this.path = new CriticalPath(instance);
+        this.durations = new int[instance.numTaskIds];
+        for(int t = 0 ; t < instance.numTaskIds ; t++) {
+            durations[t] = instance.duration(t);
+        }
+    }
+
+    /** Caches the heads and tails of the given resource order.
+     *
+     * @return False if the resource order contains a cycle (i.e. it does not represent a valid solution).
+     */
+    public boolean reset(ResourceOrder order) {
+        this.order = order;
+        if(!decoder.decode(order, schedule)) {
+            return false;
+        }
+        decoder.criticalPath(path);
+        return true;
+    }
+
+    /** Heads, tails and critical path of the resource order given to the last call of <code>reset</code>. */
+    public CriticalPath criticalPath() {
+        return path;
+    }
+
+    /** Makespan of the resource order given to the last call of <code>reset</code>. */
+    public int makespan() {
+        return path.makespan();
+    }
+
+    /** Returns true if applying the move on the current resource order gives a valid solution.
+     *
+     * For insertions and adjacent swaps, this is checked in constant time with a sufficient condition: moving a
+     * task u before a task v of its machine can only create a cycle if there is a path from v to the job
+     * predecessor of u, which requires the head of the predecessor to be at least the end of v (and the tail of v
+     * to be at least the tail of the predecessor plus its duration). Symmetrically when u is moved after v. For
+     * moves on the critical path, this rejects very few valid neighbors.
+     */
+    public boolean isFeasible(Move move) {
+        return move.isFeasible(this);
+    }
+
+    /** Estimates the makespan of the solution obtained by applying the move on the current resource order.
+     *
+     * Swaps are estimated by <code>estimateSwap</code>, other moves by recomputing the heads and tails of the
+     * tasks that change position, from the heads and tails of their neighbors in the current solution. The estimate
+     * of an insertion is not always a lower bound, but it is usually close to the makespan of the neighbor.
+     *
+     * @return The estimated makespan, or <code>Integer.MAX_VALUE</code> if the move is rejected by
+     *         <code>isFeasible</code>.
+     */
+    public int estimate(Move move) {
+        return move.isFeasible(this) ? move.estimate(this) : Integer.MAX_VALUE;
+    }
+
+    /** Checks in constant time that moving the task at position <code>from</code> of the machine to position
+     * <code>to</code> does not create a cycle (sufficient condition, see <code>isFeasible</code>). */
+    boolean isFeasibleInsertion(int machine, int from, int to) {
+        int u = order.getTaskIdOfMachine(machine, from);
+        int v = order.getTaskIdOfMachine(machine, to);
+        if(from > to) {
+            // u is placed before v: a path from v to the job predecessor of u would make a cycle
+            if(instance.taskOf(u) == 0)
+                return true;
+            int jp = u - 1;
+            return path.head(jp) < path.head(v) + durations[v] || path.tail(v) < path.tail(jp) + durations[jp];
+        } else {
+            // u is placed after v: a path from the job successor of u to v would make a cycle
+            if(instance.taskOf(u) == instance.numTasks - 1)
+                return true;
+            int js = u + 1;
+            return path.head(v) < path.head(js) + durations[js] || path.tail(js) < path.tail(v) + durations[v];
+        }
+    }
+
+    /** Estimates the makespan of a move by recomputing the heads and tails of the tasks between its first and last
+     * positions, in their new order. */
+    int estimateSegment(Move move) {
+        final int numTasks = instance.numTasks;
+        int machine = move.machine;
+        int first = move.first();
+        int last = move.last();
+        // the evaluator may be shared by several threads: no shared buffer
+        int[] heads = new int[last - first + 1];
+
+        int end = first == 0 ? 0 : endOf(order.getTaskIdOfMachine(machine, first - 1));
+        for(int position = first ; position <= last ; position++) {
+            int t = move.taskAfter(order, position);
+            int head = instance.taskOf(t) == 0 ? 0 : endOf(t - 1);
+            head = Math.max(head, end);
+            heads[position - first] = head;
+            end = head + durations[t];
+        }
+
+        int estimate = 0;
+        int next = last + 1 == instance.numJobs ? 0 : lengthFrom(order.getTaskIdOfMachine(machine, last + 1));
+        for(int position = last ; position >= first ; position--) {
+            int t = move.taskAfter(order, position);
+            int tail = instance.taskOf(t) == numTasks - 1 ? 0 : lengthFrom(t + 1);
+            tail = Math.max(tail, next);
+            estimate = Math.max(estimate, heads[position - first] + durations[t] + tail);
+            next = tail + durations[t];
+        }
+        return estimate;
+    }
+
+    /** End of the task in the current solution. */
+    private int endOf(int taskId) {
+        return path.head(taskId) + durations[taskId];
+    }
+
+    /** Length of the longest path from the start of the task to the end of the current solution. */
+    private int lengthFrom(int taskId) {
+        return durations[taskId] + path.tail(taskId);
+    }
+
+    /** Estimates the makespan of the solution obtained by applying the swap on the current resource order.
+     *
+     * For a swap of two adjacent tasks on the critical path, the returned value is a lower bound of the makespan
+     * of the neighbor. Other swaps are evaluated exactly by building and decoding the neighbor.
+     * Unlike <code>estimate(Move)</code>, the feasibility of adjacent swaps is not checked.
+     *
+     * @return The estimated makespan, or <code>Integer.MAX_VALUE</code> if the neighbor is not a valid solution.
+     */
+    int estimateSwap(Nowicki.Swap swap) {
+        if(swap.t2 != swap.t1 + 1) {
+            // not covered by the estimate, fallback to a full evaluation
+            return swap.generateFrom(order).toSchedule().map(s -> s.makespan()).orElse(Integer.MAX_VALUE);
+        }
+        final int numTasks = instance.numTasks;
+        // u is before v on the machine, v will be before u after the swap
+        int u = order.getTaskIdOfMachine(swap.machine, swap.t1);
+        int v = order.getTaskIdOfMachine(swap.machine, swap.t2);
+        int pm = decoder.machinePredecessor(u);
+        int sm = decoder.machineSuccessor(v);
+
+        // new heads of v then u
+        int headV = instance.taskOf(v) == 0 ? 0 : path.head(v - 1) + durations[v - 1];
+        if(pm != -1)
+            headV = Math.max(headV, path.head(pm) + durations[pm]);
+        int headU = instance.taskOf(u) == 0 ? 0 : path.head(u - 1) + durations[u - 1];
+        headU = Math.max(headU, headV + durations[v]);
+
+        // new tails of u then v
+        int tailU = instance.taskOf(u) == numTasks - 1 ? 0 : path.tail(u + 1) + durations[u + 1];
+        if(sm != -1)
+            tailU = Math.max(tailU, path.tail(sm) + durations[sm]);
+        int tailV = instance.taskOf(v) == numTasks - 1 ? 0 : path.tail(v + 1) + durations[v + 1];
+        tailV = Math.max(tailV, tailU + durations[u]);
+
+        return Math.max(headV + durations[v] + tailV, headU + durations[u] + tailU);
+    }
+}
@@ -3,6 +3,8 @@ package jobshop;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 
 public class ParsingTests {
@@ -26,6 +28,82 @@ public class ParsingTests {
         assert instance.numMachines == 5;
     }
 
+    /** Test that task identifiers map back to their job and task. */
+    @Test
+    public void testTaskIds() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/ft06"));
+
+        assert instance.numTaskIds == 36;
+        for (int job = 0; job < instance.numJobs; job++) {
+            for (int task = 0; task < instance.numTasks; task++) {
+                int id = instance.taskId(job, task);
+                assert instance.jobOf(id) == job && instance.taskOf(id) == task;
+                assert instance.duration(id) == instance.duration(job, task);
+                assert instance.machine(id) == instance.machine(job, task);
+                assert instance.task_with_machine(job, instance.machine(id)) == task;
+            }
+        }
+    }
+
+    /** Test the work of each job before and after each task. */
+    @Test
+    public void testWorkTables() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/ft10"));
+
+        for (int job = 0; job < instance.numJobs; job++) {
+            int total = 0;
+            for (int task = 0; task < instance.numTasks; task++) {
+                total += instance.duration(job, task);
+            }
+            assert instance.jobDuration(job) == total;
+            int before = 0;
+            for (int task = 0; task < instance.numTasks; task++) {
+                int id = instance.taskId(job, task);
+                assert instance.workBefore(id) == before;
+                assert instance.remainingWork(id) == total - before;
+                before += instance.duration(id);
+            }
+        }
+    }
+
+    /** Checks that the lower bounds are below the best known results, and that the one-machine bound is at least
+     * the machine bound. */
+    @Test
+    public void testLowerBounds() throws IOException {
+        Instance ft06 = Instance.fromFile(Paths.get("instances/ft06"));
+        assert ft06.jobLowerBound() == 47;
+        assert ft06.machineLowerBound() == 43;
+        assert ft06.oneMachineLowerBound() == 52;
+        assert ft06.lowerBound() == 52;
+
+        for (String instanceName : BestKnownResults.instances) {
+            Instance instance = Instance.fromFile(Paths.get("instances", instanceName));
+            assert instance.lowerBound() <= BestKnownResults.of(instanceName) : instanceName;
+            assert instance.oneMachineLowerBound() >= instance.machineLowerBound() : instanceName;
+        }
+    }
+
+    /** Test that an instance written in the binary format is read back identically. */
+    @Test
+    public void testBinaryFormat() throws IOException {
+        Path binaries = Files.createTempDirectory("instances");
+        binaries.toFile().deleteOnExit();
+        for (String instanceName : new String[]{"ft06", "la01", "ta80"}) {
+            Instance text = Instance.fromFile(Paths.get("instances", instanceName));
+            Path binaryFile = binaries.resolve(instanceName);
+            text.toBinaryFile(binaryFile);
+            binaryFile.toFile().deleteOnExit();
+
+            Instance binary = Instance.load(binaryFile);
+            assert binary.name.equals(instanceName);
+            assert binary.numJobs == text.numJobs && binary.numTasks == text.numTasks;
+            for (int id = 0; id < text.numTaskIds; id++) {
+                assert binary.duration(id) == text.duration(id) && binary.machine(id) == text.machine(id);
+            }
+            assert Instance.load(binaryFile) == binary : "Instances should only be loaded once";
+        }
+    }
+
     /** Test that we can successfully read all known instances. */
     @Test
     public void testAllParsable() throws IOException {
@@ -0,0 +1,93 @@
+package jobshop;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class ResultTests {
+
+    /** Checks that the results written in a results file can be read back. */
+    @Test
+    public void testRoundTrip() {
+        Result result = new Result("ft10", "taboo_spt", 42, 1000, 930, 2, 987, 1070, 930, 901, 459, 3010, 12, 340, 512,
+                "0123456789ab");
+        for (Result read : new Result[]{Result.fromCsv(result.toCsv()), Result.fromJson(result.toJson())}) {
+            assert read.key().equals(result.key()) && read.seed == result.seed;
+            assert read.target == result.target && read.threads == result.threads;
+            assert read.runtime == result.runtime && read.makespan == result.makespan;
+            assert read.bestKnown == result.bestKnown && read.lowerBound == result.lowerBound;
+            assert read.iterations == result.iterations && read.evaluations == result.evaluations;
+            assert read.infeasible == result.infeasible && read.taboo == result.taboo;
+            assert read.lastImprovement == result.lastImprovement;
+        }
+        // a run stopped at a target is not the same run as a run with the full timeout
+        assert !result.key().equals(Result.key("ft10", "taboo_spt", 42, 1000, 0, 2, "0123456789ab"));
+        // nor is a run with another number of threads
+        assert !result.key().equals(Result.key("ft10", "taboo_spt", 42, 1000, 930, 1, "0123456789ab"));
+    }
+
+    /** Checks that the lines that are not results (header, line truncated by a crash) are rejected. */
+    @Test
+    public void testInvalidLines() {
+        Result result = new Result("ft10", "taboo_spt", 42, 1000, 0, 1, 987, 1070, 930, 901, 459, 3010, 12, 340, 512,
+                "0123456789ab");
+        String[] lines = {
+                Result.csvHeader(),
+                result.toCsv().substring(0, 20),
+                result.toJson().substring(0, result.toJson().length() - 10),
+        };
+        for (String line : lines) {
+            try {
+                Result.fromCsv(line);
+                assert false : "Accepted " + line;
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+            try {
+                Result.fromJson(line);
+                assert false : "Accepted " + line;
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+
+    /** Checks that results are appended to a CSV file with the current header, and that a file with other columns
+     * is rejected. */
+    @Test
+    public void testHeader() throws IOException {
+        Result result = new Result("ft10", "taboo_spt", 42, 1000, 0, 1, 987, 1070, 930, 901, 459, 3010, 12, 340, 512,
+                "0123456789ab");
+        Path path = Files.createTempFile("results", ".csv");
+        try {
+            try (ResultsFile file = new ResultsFile(path)) {
+                file.write(result);
+            }
+            // reopening a file with the same header appends to it
+            try (ResultsFile file = new ResultsFile(path)) {
+                file.write(result);
+            }
+            assert ResultsFile.read(path).size() == 2;
+
+            // the results written after a line truncated by a crash are not merged with it
+            String content = Files.readString(path);
+            Files.writeString(path, content.substring(0, content.lastIndexOf(',')));
+            try (ResultsFile file = new ResultsFile(path)) {
+                file.write(result);
+            }
+            assert ResultsFile.read(path).size() == 2;
+
+            Files.writeString(path, "instance,solver,makespan\nft10,taboo_spt,1070\n");
+            try {
+                new ResultsFile(path).close();
+                assert false : "Accepted a file with other columns";
+            } catch (IOException e) {
+                // expected
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package jobshop.encodings;
+
+import jobshop.BestKnownResults;
+import jobshop.Instance;
+import jobshop.solvers.BasicSolver;
+import jobshop.solvers.GreedySolver;
+import jobshop.solvers.neighborhood.Nowicki;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Optional;
+
+public class DecoderTests {
+
+    /** Checks that the decoder produces the same schedules as the reference implementation. */
+    @Test
+    public void testSameAsReference() throws IOException {
+        for (String name : BestKnownResults.instancesMatching("la0")) {
+            Instance instance = Instance.fromFile(Paths.get("instances", name));
+            Decoder decoder = new Decoder(instance);
+            Schedule buffer = new Schedule(instance);
+
+            ResourceOrder order = new ResourceOrder(new BasicSolver().solve(instance, Long.MAX_VALUE).get());
+            ResourceOrder greedy = new ResourceOrder(
+                    new GreedySolver(GreedySolver.Priority.EST_LRPT).solve(instance, Long.MAX_VALUE).get());
+
+            for (ResourceOrder ro : new ResourceOrder[]{order, greedy}) {
+                for (Nowicki.Swap swap : new Nowicki().allSwaps(ro)) {
+                    ResourceOrder neighbor = swap.generateFrom(ro);
+                    Optional<Schedule> reference = neighbor.toScheduleReference();
+                    assert reference.isPresent();
+                    assert reference.equals(neighbor.toSchedule()) : "Different schedules on " + name;
+
+                    // the same buffer is reused for all decodings
+                    assert decoder.decode(neighbor, buffer);
+                    assert buffer.equals(reference.get()) : "Different schedules on " + name;
+                }
+            }
+        }
+    }
+
+    /** Checks the critical path, heads and tails computed from a decoding. */
+    @Test
+    public void testCriticalPath() throws IOException {
+        for (String name : new String[]{"ft06", "ft10", "la21", "ta41"}) {
+            Instance instance = Instance.fromFile(Paths.get("instances", name));
+            ResourceOrder order = new ResourceOrder(
+                    new GreedySolver(GreedySolver.Priority.EST_SPT).solve(instance, Long.MAX_VALUE).get());
+
+            Decoder decoder = new Decoder(instance);
+            Schedule schedule = new Schedule(instance);
+            CriticalPath path = new CriticalPath(instance);
+            assert decoder.decode(order, schedule);
+            decoder.criticalPath(path);
+
+            assert path.makespan() == schedule.makespan();
+            for (int t = 0; t < instance.numTaskIds; t++) {
+                assert path.head(t) == schedule.startTime(t);
+                assert path.head(t) + instance.duration(t) + path.tail(t) <= path.makespan();
+            }
+            for (int i = 0; i < path.length(); i++) {
+                int t = path.task(i);
+                assert path.positionOf(t) == i;
+                assert path.head(t) + instance.duration(t) + path.tail(t) == path.makespan() : "Non critical task on " + name;
+            }
+
+            // same path as the one found without the predecessors recorded by the decoder
+            Schedule copy = new Schedule(instance);
+            for (int t = 0; t < instance.numTaskIds; t++) {
+                copy.setStartTime(t, schedule.startTime(t));
+            }
+            assert Arrays.equals(copy.criticalPathIds(), path.toArray()) : "Different critical paths on " + name;
+            assert schedule.isCriticalPath(schedule.criticalPath());
+        }
+    }
+
+    /** Checks that a resource order is recovered from its schedule, with or without the decoding information. */
+    @Test
+    public void testRoundTrip() throws IOException {
+        for (String name : new String[]{"ft10", "la21", "ta41"}) {
+            Instance instance = Instance.fromFile(Paths.get("instances", name));
+            ResourceOrder order = new ResourceOrder(
+                    new GreedySolver(GreedySolver.Priority.LRPT).solve(instance, Long.MAX_VALUE).get());
+            Schedule schedule = order.toSchedule().get();
+
+            // manual copy of the schedule, without the topological order recorded by the decoder
+            Schedule copy = new Schedule(instance);
+            for (int t = 0; t < instance.numTaskIds; t++) {
+                copy.setStartTime(t, schedule.startTime(t));
+            }
+            ResourceOrder fast = new ResourceOrder(schedule);
+            ResourceOrder sorted = new ResourceOrder(copy);
+            assert fast.equals(order) && sorted.equals(order);
+
+            for (int m = 0; m < instance.numMachines; m++) {
+                for (int i = 0; i < instance.numJobs; i++) {
+                    assert fast.positionOf(fast.getTaskIdOfMachine(m, i)) == i;
+                    assert sorted.positionOf(sorted.getTaskOfMachine(m, i)) == i;
+                }
+            }
+
+            // the position index follows the swaps
+            order.swapTasks(0, 2, 3);
+            assert order.positionOf(order.getTaskIdOfMachine(0, 2)) == 2;
+            assert order.positionOf(order.getTaskIdOfMachine(0, 3)) == 3;
+            assert order.positionOf(fast.getTaskIdOfMachine(0, 2)) == 3;
+        }
+    }
+
+    /** Checks that cyclic and incomplete resource orders are rejected. */
+    @Test
+    public void testInvalid() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/aaa1"));
+
+        ResourceOrder incomplete = new ResourceOrder(instance);
+        incomplete.addTaskToMachine(0, new Task(0, 0));
+        assert incomplete.toSchedule().isEmpty();
+
+        ResourceOrder cyclic = new ResourceOrder(instance);
+        cyclic.addTaskToMachine(2, new Task(0, 2));
+        cyclic.addTaskToMachine(1, new Task(0, 1));
+        cyclic.addTaskToMachine(0, new Task(1, 1));
+        cyclic.addTaskToMachine(0, new Task(0, 0));
+        cyclic.addTaskToMachine(1, new Task(1, 0));
+        cyclic.addTaskToMachine(2, new Task(1, 2));
+        assert cyclic.toScheduleReference().isEmpty();
+        assert cyclic.toSchedule().isEmpty();
+    }
+}
@@ -0,0 +1,55 @@
+package jobshop.encodings;
+
+import jobshop.Instance;
+import jobshop.solvers.GreedySolver;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Random;
+
+public class JobNumbersTests {
+
+    /** Checks that random sequences are decoded into valid schedules, and that the allocation-free decoder
+     * gives the same makespan. */
+    @Test
+    public void testDecoding() throws IOException {
+        Random random = new Random(0);
+        for (String name : new String[]{"ft06", "la21", "ta41"}) {
+            Instance instance = Instance.fromFile(Paths.get("instances", name));
+            int[] buffer = new int[JobNumbers.bufferSize(instance)];
+            for (int i = 0; i < 20; i++) {
+                int[] jobs = new int[instance.numTaskIds];
+                for (int t = 0; t < jobs.length; t++) {
+                    jobs[t] = instance.jobOf(t);
+                }
+                for (int t = jobs.length - 1; t > 0; t--) {
+                    int r = random.nextInt(t + 1);
+                    int tmp = jobs[t];
+                    jobs[t] = jobs[r];
+                    jobs[r] = tmp;
+                }
+                Schedule schedule = new JobNumbers(instance, jobs).toSchedule().get();
+                assert schedule.isValid();
+                assert schedule.isDecoded();
+                assert JobNumbers.makespan(instance, jobs, buffer) == schedule.makespan();
+                assert schedule.criticalPath().size() > 0;
+            }
+        }
+    }
+
+    /** Checks that the sequence built from a schedule gives the same schedule, and that incomplete sequences
+     * are rejected. */
+    @Test
+    public void testFromSchedule() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/la21"));
+        Schedule schedule = new GreedySolver(GreedySolver.Priority.EST_LRPT).solve(instance, Long.MAX_VALUE).get();
+        JobNumbers sol = JobNumbers.fromSchedule(schedule);
+        assert sol.toSchedule().get().equals(schedule);
+        assert sol.copy().equals(sol);
+
+        JobNumbers partial = new JobNumbers(instance);
+        partial.addTaskOfJob(0);
+        assert partial.toSchedule().isEmpty();
+    }
+}
@@ -0,0 +1,70 @@
+package jobshop.encodings;
+
+import jobshop.Instance;
+import jobshop.solvers.GreedySolver;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Random;
+
+public class ScheduleTests {
+
+    /** Reference validity check, comparing all pairs of tasks of each machine. */
+    static boolean isValidReference(Schedule schedule) {
+        Instance instance = schedule.instance;
+        for (int id = 0; id < instance.numTaskIds; id++) {
+            if (schedule.startTime(id) < 0)
+                return false;
+            if (instance.taskOf(id) > 0 && schedule.endTime(id - 1) > schedule.startTime(id))
+                return false;
+            for (int other = 0; other < instance.numTaskIds; other++) {
+                if (other != id && instance.machine(other) == instance.machine(id)
+                        && schedule.endTime(id) > schedule.startTime(other)
+                        && schedule.endTime(other) > schedule.startTime(id))
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    /** Checks the validation of schedules against the pairwise reference, on valid and perturbed schedules. */
+    @Test
+    public void testValidation() throws IOException {
+        Random random = new Random(0);
+        for (String name : new String[]{"ft06", "la01", "orb01"}) {
+            Instance instance = Instance.fromFile(Paths.get("instances", name));
+            Schedule valid = new GreedySolver(GreedySolver.Priority.EST_SPT).solve(instance, Long.MAX_VALUE).get();
+            assert valid.isDecoded();
+            assert valid.isValid() && valid.firstViolation().isEmpty();
+
+            for (int i = 0; i < 500; i++) {
+                Schedule perturbed = new Schedule(instance);
+                for (int id = 0; id < instance.numTaskIds; id++) {
+                    perturbed.setStartTime(id, valid.startTime(id));
+                }
+                // shift a few tasks, which may or may not break a constraint
+                for (int k = 0; k < 1 + random.nextInt(3); k++) {
+                    int id = random.nextInt(instance.numTaskIds);
+                    perturbed.setStartTime(id, perturbed.startTime(id) + random.nextInt(21) - 10);
+                }
+                assert !perturbed.isDecoded();
+                assert perturbed.isValid() == isValidReference(perturbed) : "Wrong validation on " + name;
+                perturbed.firstViolation().ifPresent(v -> {
+                    assert v.second == -1 || instance.machine(v.first) == instance.machine(v.second)
+                            || instance.jobOf(v.first) == instance.jobOf(v.second);
+                });
+            }
+        }
+    }
+
+    /** Checks the validation of the greedy schedules of all instances (some of them have a zero duration task). */
+    @Test
+    public void testAllInstances() throws IOException {
+        for (String name : jobshop.BestKnownResults.instancesMatching("")) {
+            Instance instance = Instance.fromFile(Paths.get("instances", name));
+            Schedule schedule = new GreedySolver(GreedySolver.Priority.SPT).solve(instance, Long.MAX_VALUE).get();
+            assert schedule.isValid() && isValidReference(schedule) : name;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package jobshop.solvers;
+
+import jobshop.BestKnownResults;
+import jobshop.Instance;
+import jobshop.encodings.Schedule;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Optional;
+
+public class BranchAndBoundSolverTests {
+
+    /** Checks that the optimum of small instances is found and proven, even from a poor initial solution. */
+    @Test
+    public void testOptimal() throws IOException {
+        for (String instanceName : new String[]{"ft06", "la01", "la03"}) {
+            Instance instance = Instance.fromFile(Paths.get("instances", instanceName));
+            Solver solver = new BranchAndBoundSolver(new BasicSolver(), 0, 2);
+            Optional<Schedule> result = solver.solve(instance, System.currentTimeMillis() + 30000);
+
+            assert result.isPresent() && result.get().isValid();
+            assert result.get().makespan() == BestKnownResults.of(instanceName) : instanceName;
+            assert solver.statistics().lowerBound() == result.get().makespan() : instanceName;
+            assert solver.statistics().optimalityGap(result.get().makespan()) == 0;
+        }
+    }
+
+    /** Checks that a search that is interrupted returns its best solution and a valid lower bound. */
+    @Test
+    public void testDeadline() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/ft10"));
+        Solver solver = Solver.getSolver("bnb", 2);
+        long start = System.currentTimeMillis();
+        Optional<Schedule> result = solver.solve(instance, start + 500);
+        long runtime = System.currentTimeMillis() - start;
+
+        assert runtime < 1500 : "The solver did not stop at the deadline (" + runtime + "ms)";
+        assert result.isPresent() && result.get().isValid();
+        int lowerBound = solver.statistics().lowerBound();
+        assert lowerBound >= instance.lowerBound();
+        assert lowerBound <= BestKnownResults.of("ft10");
+        assert solver.statistics().optimalityGap(result.get().makespan()) >= 0;
+    }
+}
@@ -0,0 +1,81 @@
+package jobshop.solvers;
+
+import jobshop.Instance;
+import jobshop.encodings.Schedule;
+import jobshop.solvers.neighborhood.Nowicki;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class CancellationTests {
+
+    /** Checks that a greedy solver whose deadline is already met does not run. */
+    @Test
+    public void testGreedyDeadline() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/ft10"));
+        Solver solver = new GreedySolver(GreedySolver.Priority.SPT);
+        assert solver.solve(instance, System.currentTimeMillis() - 1).isEmpty();
+        assert solver.solve(instance, Long.MAX_VALUE).isPresent();
+    }
+
+    /** Checks that solvers without a deadline stop when cancelled, after publishing improving solutions. */
+    @Test
+    public void testCancel() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/ta41"));
+        Solver[] solvers = {
+                new TabooSolver(new Nowicki(), new GreedySolver(GreedySolver.Priority.SPT), Solver.tabooTimer),
+                new ParallelDescentSolver(new Nowicki(), new GreedySolver(GreedySolver.Priority.SPT, 0.95), 1000, 2),
+        };
+        ScheduledExecutorService canceller = Executors.newSingleThreadScheduledExecutor();
+        for (Solver solver : solvers) {
+            CancellationToken token = new CancellationToken(Long.MAX_VALUE);
+            List<Schedule> published = new ArrayList<>();
+            canceller.schedule(token::cancel, 300, TimeUnit.MILLISECONDS);
+
+            long start = System.currentTimeMillis();
+            Optional<Schedule> result = solver.solve(instance, token, published::add);
+            long runtime = System.currentTimeMillis() - start;
+
+            assert runtime < 1500 : "The solver did not stop when cancelled (" + runtime + "ms)";
+            assert result.isPresent() && result.get().isValid();
+            assert !published.isEmpty();
+            for (int i = 1; i < published.size(); i++) {
+                assert published.get(i).makespan() < published.get(i - 1).makespan() : "Not an improvement";
+            }
+            assert published.get(published.size() - 1).makespan() == result.get().makespan();
+        }
+        canceller.shutdown();
+    }
+
+    /** Checks that the solvers stop as soon as they reach the lower bound, long before their deadline. */
+    @Test
+    public void testLowerBound() throws IOException {
+        // the greedy solution of la05 is already optimal
+        Instance instance = Instance.fromFile(Paths.get("instances/la05"));
+        Solver[] solvers = {
+                new DescentSolver(new Nowicki(), new GreedySolver(GreedySolver.Priority.EST_LRPT)),
+                new TabooSolver(new Nowicki(), new GreedySolver(GreedySolver.Priority.EST_LRPT), Solver.tabooTimer),
+                new ParallelDescentSolver(new Nowicki(), new GreedySolver(GreedySolver.Priority.EST_LRPT, 0.95), 1000, 2),
+        };
+        for (Solver solver : solvers) {
+            long start = System.currentTimeMillis();
+            Optional<Schedule> result = solver.solve(instance, start + 10000);
+            long runtime = System.currentTimeMillis() - start;
+
+            assert result.isPresent() && result.get().makespan() == instance.lowerBound();
+            assert runtime < 2000 : "The solver did not stop at the lower bound (" + runtime + "ms)";
+        }
+
+        // with an explicit target, e.g. the best known result
+        CancellationToken token = new CancellationToken(Long.MAX_VALUE, 1000);
+        assert !token.offer(1001) && !token.isCancelled();
+        assert token.offer(1000) && token.isCancelled();
+    }
+}
@@ -0,0 +1,62 @@
+package jobshop.solvers;
+
+import jobshop.Instance;
+import jobshop.encodings.Schedule;
+import jobshop.solvers.neighborhood.Nowicki;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+public class GeneticSolverTests {
+
+    /** Checks that the genetic solvers return a valid solution, at least as good as their initial one, and respect
+     * their deadline. */
+    @Test
+    public void testDeadline() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/ta41"));
+        int initial = new GreedySolver(GreedySolver.Priority.EST_LRPT).solve(instance, Long.MAX_VALUE).get().makespan();
+        for (String name : new String[]{"ga_est_lrpt", "memetic_est_lrpt"}) {
+            Solver solver = Solver.getSolver(name, 4);
+            long start = System.currentTimeMillis();
+            Optional<Schedule> result = solver.solve(instance, start + 500);
+            long runtime = System.currentTimeMillis() - start;
+
+            assert result.isPresent() && result.get().isValid() : name + " did not provide a valid solution";
+            assert result.get().makespan() <= initial : name;
+            assert runtime < 1500 : name + " did not stop at its deadline (" + runtime + "ms)";
+            assert solver.statistics().iterations() > 0;
+            // the memetic descents add their evaluations to the children of the generations
+            long children = solver.statistics().iterations() * (Solver.geneticPopulation - 1);
+            assert name.startsWith("memetic") ? solver.statistics().evaluations() > children
+                    : solver.statistics().evaluations() == children : name;
+        }
+    }
+
+    /** Checks that seeded runs with parallel workers publish the same successive solutions. */
+    @Test
+    public void testRepeatable() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/ft10"));
+        int publications = 4;
+        List<List<Schedule>> runs = new ArrayList<>();
+        for (int run = 0; run < 2; run++) {
+            List<Schedule> published = new ArrayList<>();
+            // the runs stop after a fixed number of publications, between two generations, and not at a deadline
+            // that could interrupt a descent
+            CancellationToken token = new CancellationToken(Long.MAX_VALUE);
+            new GeneticSolver(new GreedySolver(GreedySolver.Priority.EST_LRPT), new Nowicki(), 50, 3).withSeed(7)
+                    .solve(instance, token, s -> {
+                        published.add(s);
+                        if (published.size() == publications) {
+                            token.cancel();
+                        }
+                    });
+            assert published.size() == publications;
+            runs.add(published);
+        }
+        assert runs.get(0).equals(runs.get(1));
+    }
+}
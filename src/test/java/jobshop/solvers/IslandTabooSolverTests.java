@@ -0,0 +1,59 @@
+package jobshop.solvers;
+
+import jobshop.Instance;
+import jobshop.encodings.ResourceOrder;
+import jobshop.encodings.Schedule;
+import jobshop.solvers.neighborhood.Nowicki;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+public class IslandTabooSolverTests {
+
+    /** Checks that the board only keeps a solution that is better than the previous ones. */
+    @Test
+    public void testBoard() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/ft06"));
+        ResourceOrder order = new ResourceOrder(new BasicSolver().solve(instance, Long.MAX_VALUE).get());
+
+        IslandTabooSolver.Board board = new IslandTabooSolver.Board();
+        assert board.get() == null;
+        assert board.offer(order, 100);
+        assert !board.offer(order, 100) && !board.offer(order, 120);
+        assert board.offer(order, 90) && board.get().makespan == 90;
+        assert board.get().order != order : "The published solution should be a copy";
+    }
+
+    /** Checks that the islands return a valid solution, at least as good as their published solutions. */
+    @Test
+    public void testSolve() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/ft10"));
+        Solver solver = new IslandTabooSolver(new Nowicki(), new GreedySolver(GreedySolver.Priority.EST_LRPT, 0.95),
+                3, 50, 8, 14).withSeed(0);
+        List<Schedule> published = new ArrayList<>();
+
+        long start = System.currentTimeMillis();
+        Optional<Schedule> result = solver.solve(instance, new CancellationToken(start + 500), published::add);
+        long runtime = System.currentTimeMillis() - start;
+
+        assert runtime < 1500 : "The solver did not stop at its deadline (" + runtime + "ms)";
+        assert result.isPresent() && result.get().isValid();
+        assert !published.isEmpty();
+        assert published.get(published.size() - 1).makespan() == result.get().makespan();
+        assert solver.statistics().iterations() > 0;
+    }
+
+    /** Checks that the islands restart from the better solutions of the other islands. */
+    @Test
+    public void testMigration() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/ta21"));
+        IslandTabooSolver solver = (IslandTabooSolver) new IslandTabooSolver(new Nowicki(),
+                new GreedySolver(GreedySolver.Priority.EST_LRPT, 0.95), 3, 20, 8, 14).withSeed(0);
+        solver.solve(instance, System.currentTimeMillis() + 500);
+        assert solver.migrations.sum() > 0 : "No island restarted from the solution of another island";
+    }
+}
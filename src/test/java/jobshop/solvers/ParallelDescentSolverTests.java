@@ -0,0 +1,28 @@
+package jobshop.solvers;
+
+import jobshop.Instance;
+import jobshop.encodings.Schedule;
+import jobshop.solvers.neighborhood.Nowicki;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Optional;
+
+public class ParallelDescentSolverTests {
+
+    /** Checks that the parallel descent returns a valid solution and respects its deadline. */
+    @Test
+    public void testDeadline() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/ta41"));
+        Solver solver = new ParallelDescentSolver(new Nowicki(),
+                new GreedySolver(GreedySolver.Priority.EST_LRPT, 0.95), 1000, 4);
+
+        long start = System.currentTimeMillis();
+        Optional<Schedule> result = solver.solve(instance, start + 500);
+        long runtime = System.currentTimeMillis() - start;
+
+        assert result.isPresent() && result.get().isValid() : "The solver did not provide a valid solution";
+        assert runtime < 1500 : "The solver did not stop at its deadline (" + runtime + "ms)";
+    }
+}
@@ -0,0 +1,37 @@
+package jobshop.solvers;
+
+import jobshop.Instance;
+import jobshop.encodings.Schedule;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+public class SeedTests {
+
+    /** Checks that randomized solvers with the same seed produce the same solutions. */
+    @Test
+    public void testRepeatable() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/ft10"));
+        for (String name : new String[]{"lrpt_random", "desc_est_spt_random", "taboo_spt_random"}) {
+            Schedule s1 = Solver.getSolver(name).withSeed(7).solve(instance, Long.MAX_VALUE).get();
+            Schedule s2 = Solver.getSolver(name).withSeed(7).solve(instance, Long.MAX_VALUE).get();
+            assert s1.equals(s2) : name + " is not repeatable";
+        }
+    }
+
+    /** Checks that the successive runs of a seeded solver and runs with different seeds are different. */
+    @Test
+    public void testDifferentSeeds() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/ta01"));
+        Solver solver = Solver.getSolver("spt_random").withSeed(1);
+        Schedule first = solver.solve(instance, Long.MAX_VALUE).get();
+        Schedule second = solver.solve(instance, Long.MAX_VALUE).get();
+        Schedule other = Solver.getSolver("spt_random").withSeed(2).solve(instance, Long.MAX_VALUE).get();
+        assert !first.equals(second) && !first.equals(other);
+
+        // deterministic solvers are not affected by the seed
+        Solver deterministic = Solver.getSolver("est_lrpt");
+        assert deterministic.withSeed(1) == deterministic;
+    }
+}
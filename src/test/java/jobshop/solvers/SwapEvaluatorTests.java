@@ -0,0 +1,84 @@
+package jobshop.solvers;
+
+import jobshop.Instance;
+import jobshop.encodings.ResourceOrder;
+import jobshop.encodings.Schedule;
+import jobshop.solvers.neighborhood.BlockInsertions;
+import jobshop.solvers.neighborhood.CriticalSwaps;
+import jobshop.solvers.neighborhood.Move;
+import jobshop.solvers.neighborhood.Neighborhood;
+import jobshop.solvers.neighborhood.Nowicki;
+import jobshop.solvers.neighborhood.SwapEvaluator;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+public class SwapEvaluatorTests {
+
+    /** Checks that the estimate of every Nowicki swap is a lower bound of the makespan of the neighbor. */
+    @Test
+    public void testEstimateIsLowerBound() throws IOException {
+        for (String name : new String[]{"ft06", "ft10", "la01", "la21", "orb01"}) {
+            Instance instance = Instance.fromFile(Paths.get("instances", name));
+            Schedule initial = new GreedySolver(GreedySolver.Priority.EST_LRPT).solve(instance, Long.MAX_VALUE).get();
+            ResourceOrder order = new ResourceOrder(initial);
+
+            SwapEvaluator evaluator = new SwapEvaluator(instance);
+            assert evaluator.reset(order);
+            assert evaluator.makespan() == initial.makespan() : "The evaluator does not agree on the makespan";
+
+            for (Nowicki.Swap swap : new Nowicki().allSwaps(order)) {
+                Schedule neighbor = swap.generateFrom(order).toSchedule().get();
+                int estimate = evaluator.estimate(swap);
+                assert swap.estimateIsLowerBound();
+                // swaps rejected by the sufficient feasibility condition are not estimated
+                assert estimate <= neighbor.makespan() || !evaluator.isFeasible(swap)
+                        : "The estimate is not a lower bound on " + name;
+            }
+        }
+    }
+
+    /** Checks the moves of all neighborhoods: the feasible ones give valid neighbors, <code>taskAfter</code> and the
+     * reversed pairs agree with the neighbor, undoing a move restores the order, and the estimates of swaps are
+     * lower bounds. */
+    @Test
+    public void testMoves() throws IOException {
+        Neighborhood[] neighborhoods = {new Nowicki(), new CriticalSwaps(), new BlockInsertions()};
+        for (String name : new String[]{"ft06", "ft10", "la01", "la21", "orb01"}) {
+            Instance instance = Instance.fromFile(Paths.get("instances", name));
+            Schedule initial = new GreedySolver(GreedySolver.Priority.SPT).solve(instance, Long.MAX_VALUE).get();
+            ResourceOrder order = new ResourceOrder(initial);
+            SwapEvaluator evaluator = new SwapEvaluator(instance);
+            assert evaluator.reset(order);
+
+            for (Neighborhood neighborhood : neighborhoods) {
+                for (Move move : neighborhood.allMoves(order, evaluator.criticalPath())) {
+                    ResourceOrder neighbor = move.generateFrom(order);
+                    for (int position = move.first(); position <= move.last(); position++) {
+                        assert neighbor.getTaskIdOfMachine(move.machine, position) == move.taskAfter(order, position);
+                    }
+                    for (int k = 0; k < move.reversedPairs(); k++) {
+                        int first = move.placedFirst(order, k), second = move.placedSecond(order, k);
+                        assert order.positionOf(second) < order.positionOf(first);
+                        assert neighbor.positionOf(first) < neighbor.positionOf(second);
+                    }
+                    ResourceOrder copy = order.copy();
+                    move.applyOn(copy);
+                    assert copy.equals(neighbor);
+                    move.undoApplyOn(copy);
+                    assert copy.equals(order);
+
+                    if (evaluator.isFeasible(move)) {
+                        Schedule schedule = neighbor.toSchedule().get();
+                        if (move instanceof Nowicki.Swap) {
+                            assert evaluator.estimate(move) <= schedule.makespan() : name;
+                        }
+                    } else {
+                        assert evaluator.estimate(move) == Integer.MAX_VALUE;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package jobshop.solvers;
+
+import jobshop.Instance;
+import jobshop.encodings.Schedule;
+import jobshop.solvers.neighborhood.Nowicki;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Random;
+
+public class TabooSolverTests {
+
+    /** Checks that evaluating the neighborhood in parallel does not change the trajectory of the search. */
+    @Test
+    public void testParallelSameAsSequential() throws IOException {
+        for (String name : new String[]{"ft10", "la21", "ta01"}) {
+            Instance instance = Instance.fromFile(Paths.get("instances", name));
+            Solver base = new GreedySolver(GreedySolver.Priority.EST_LRPT);
+            Solver sequential = new TabooSolver(new Nowicki(), base, Solver.tabooTimer, 1, 300);
+            Solver parallel = new TabooSolver(new Nowicki(), base, Solver.tabooTimer, 4, 300);
+
+            Schedule s1 = sequential.solve(instance, Long.MAX_VALUE).get();
+            Schedule s2 = parallel.solve(instance, Long.MAX_VALUE).get();
+            assert s1.isValid() && s2.isValid();
+            assert s1.equals(s2) : "Sequential and parallel searches differ on " + name;
+        }
+    }
+
+    /** Checks the counters and the trace of a run. */
+    @Test
+    public void testStatistics() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/ta01"));
+        Solver solver = new TabooSolver(new Nowicki(), new GreedySolver(GreedySolver.Priority.SPT), Solver.tabooTimer);
+        Trace trace = new Trace(0);
+        solver.statistics().setTrace(trace);
+        solver.solve(instance, System.currentTimeMillis() + 300);
+
+        SolverStatistics statistics = solver.statistics();
+        assert statistics.iterations() > 0 && statistics.evaluations() >= statistics.iterations();
+        assert statistics.taboo() + statistics.infeasible() <= statistics.evaluations();
+        assert trace.size() > 0 && trace.iteration(0) == 0;
+        for (int i = 1; i < trace.size(); i++) {
+            assert trace.elapsed(i) >= trace.elapsed(i - 1) && trace.iteration(i) > trace.iteration(i - 1);
+            assert trace.best(i) <= trace.best(i - 1) && trace.best(i) <= trace.current(i);
+        }
+    }
+
+    /** Checks that a forbidden move stays taboo during exactly its tenure. */
+    @Test
+    public void testTabooList() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/ft06"));
+        // two tasks on the same machine
+        int u = instance.taskId(0, 0);
+        int v = instance.taskId(1, instance.task_with_machine(1, instance.machine(u)));
+
+        TabooList taboo = new TabooList(instance, 3, 3, new Random(0));
+        taboo.forbid(u, v, 10);
+        assert taboo.isTaboo(u, v, 11) && taboo.isTaboo(u, v, 13);
+        assert !taboo.isTaboo(u, v, 14);
+        assert !taboo.isTaboo(v, u, 11) : "Only the given order should be taboo";
+    }
+}
@@ -0,0 +1,97 @@
+package jobshop.solvers.neighborhood;
+
+import jobshop.Instance;
+import jobshop.encodings.CriticalPath;
+import jobshop.encodings.Decoder;
+import jobshop.encodings.ResourceOrder;
+import jobshop.encodings.Schedule;
+import jobshop.solvers.GreedySolver;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+public class NowickiTests {
+
+    /** Checks that the blocks are maximal sequences of consecutive critical tasks on a same machine. */
+    @Test
+    public void testBlocks() throws IOException {
+        for (String name : new String[]{"ft06", "ft10", "la21", "orb01", "ta41"}) {
+            Instance instance = Instance.fromFile(Paths.get("instances", name));
+            ResourceOrder order = new ResourceOrder(
+                    new GreedySolver(GreedySolver.Priority.SPT).solve(instance, Long.MAX_VALUE).get());
+            Decoder decoder = new Decoder(instance);
+            assert decoder.decode(order, new Schedule(instance));
+            CriticalPath path = new CriticalPath(instance);
+            decoder.criticalPath(path);
+
+            int[] blocks = new int[3 * path.length()];
+            int numBlocks = Neighborhood.criticalBlocks(order, path.tasks(), path.length(), blocks);
+            int covered = 0;
+            for (int b = 0; b < numBlocks; b++) {
+                int machine = blocks[3*b], first = blocks[3*b+1], last = blocks[3*b+2];
+                assert last > first : "A block has at least two tasks";
+                int start = path.positionOf(order.getTaskIdOfMachine(machine, first));
+                for (int i = first; i <= last; i++) {
+                    assert path.positionOf(order.getTaskIdOfMachine(machine, i)) == start + i - first
+                            : "Tasks of a block must be consecutive on the critical path of " + name;
+                }
+                covered += last - first + 1;
+            }
+
+            // all other tasks of the path have a different machine than their neighbors on the path
+            int alone = 0;
+            for (int i = 0; i < path.length(); i++) {
+                int m = instance.machine(path.task(i));
+                boolean samePrev = i > 0 && instance.machine(path.task(i - 1)) == m;
+                boolean sameNext = i + 1 < path.length() && instance.machine(path.task(i + 1)) == m;
+                if (!samePrev && !sameNext)
+                    alone++;
+            }
+            assert covered + alone == path.length() : "Some blocks are missing on " + name;
+
+            // the same swaps are found from the schedule
+            assert new Nowicki().allSwaps(order).equals(new Nowicki().allSwaps(order, path));
+        }
+    }
+
+    /** Checks that visiting the neighbors in place gives the same neighbors as generating them, and restores the order. */
+    @Test
+    public void testInPlaceNeighbors() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/la21"));
+        ResourceOrder order = new ResourceOrder(
+                new GreedySolver(GreedySolver.Priority.EST_SPT).solve(instance, Long.MAX_VALUE).get());
+        ResourceOrder original = order.copy();
+        Nowicki nowicki = new Nowicki();
+
+        List<ResourceOrder> expected = nowicki.generateNeighbors(order);
+        List<ResourceOrder> visited = new ArrayList<>();
+        nowicki.forEachNeighbor(order, neighbor -> visited.add(neighbor.copy()));
+        assert visited.equals(expected);
+        assert order.equals(original) : "The current solution was not restored";
+
+        // exact evaluation in place
+        Decoder decoder = new Decoder(instance);
+        Schedule buffer = new Schedule(instance);
+        for (Nowicki.Swap swap : nowicki.allSwaps(order)) {
+            assert swap.evaluate(order, decoder, buffer) == swap.generateFrom(order).toSchedule().get().makespan();
+        }
+        assert order.equals(original) : "The current solution was not restored";
+
+        // stopping early also restores the order
+        nowicki.forEachNeighbor(order, neighbor -> false);
+        assert order.equals(original);
+
+        // and so does a visitor that throws
+        try {
+            nowicki.forEachNeighbor(order, neighbor -> {
+                throw new IllegalStateException();
+            });
+            assert false;
+        } catch (IllegalStateException e) {
+            assert order.equals(original) : "The current solution was not restored";
+        }
+    }
+}